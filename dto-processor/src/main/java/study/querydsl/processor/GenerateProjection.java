@@ -0,0 +1,17 @@
+package study.querydsl.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * DTO 에 붙이면 컴파일 시점에 {DTO 이름}Projection 클래스를 생성 (ProjectionProcessor)
+ * => Projections.bean / fields 처럼 별칭(프로퍼티 이름)으로 값을 넣지만 리플렉션 없이 setter / 생성자를 직접 호출
+ * => 예) MemberDtoProjection.of(member.username, member.age)
+ * => 소스에만 남고 런타임 의존성 없음
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateProjection {
+}
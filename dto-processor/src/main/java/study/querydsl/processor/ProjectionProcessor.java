@@ -0,0 +1,240 @@
+package study.querydsl.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @GenerateProjection 이 붙은 DTO 마다 FactoryExpression 구현 클래스를 생성
+ * => 표현식 별칭 -> 프로퍼티 자리 매핑은 프로젝션을 만들 때 한 번만 하고
+ *    newInstance 에서는 switch 로 setter / 생성자를 직접 호출 (행마다 리플렉션 , 이름 조회 없음)
+ * => 기본 생성자가 있으면 기본 생성자 + setter
+ *    없으면 파라미터 이름이 모두 필드 이름인 생성자 중 파라미터가 가장 많은 것 + 나머지는 setter
+ * => lombok 이 만든 setter / 생성자는 이 시점에 보이지 않을 수 있어서 lombok 애너테이션으로 판단
+ */
+@SupportedAnnotationTypes("study.querydsl.processor.GenerateProjection")
+public class ProjectionProcessor extends AbstractProcessor {
+
+    private static final String LOMBOK = "lombok.";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateProjection.class)) {
+            if (element.getKind() != ElementKind.CLASS
+                    || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL
+                    || element.getModifiers().contains(Modifier.ABSTRACT)) {
+                error(element, "@GenerateProjection 은 최상위 일반 클래스에만 붙일 수 있음");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            ProjectionModel model = analyze(type);
+            if (model == null) {
+                continue;
+            }
+            try {
+                write(type, model);
+            } catch (IOException e) {
+                error(type, "프로젝션 클래스 생성 실패 : " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private ProjectionModel analyze(TypeElement type) {
+        Set<String> lombok = lombokAnnotations(type);
+        Map<String, VariableElement> fields = new LinkedHashMap<>();
+        boolean hasFinalField = false;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            hasFinalField |= field.getModifiers().contains(Modifier.FINAL);
+            fields.put(field.getSimpleName().toString(), field);
+        }
+
+        List<String> constructorParams = constructorParams(type, lombok, fields, hasFinalField);
+        if (constructorParams == null) {
+            error(type, "기본 생성자 또는 파라미터 이름이 모두 필드 이름인 생성자가 필요함");
+            return null;
+        }
+
+        ProjectionModel model = new ProjectionModel(constructorParams.size());
+        for (String name : constructorParams) {
+            model.properties.add(new Property(name, fields.get(name), null));
+        }
+        for (Map.Entry<String, VariableElement> entry : fields.entrySet()) {
+            if (constructorParams.contains(entry.getKey())) {
+                continue;
+            }
+            String setter = setterOf(type, entry.getValue(), lombok);
+            if (setter == null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "setter 가 없어 프로젝션에서 제외됨 : " + entry.getKey(), entry.getValue());
+                continue;
+            }
+            model.properties.add(new Property(entry.getKey(), entry.getValue(), setter));
+        }
+        return model;
+    }
+
+    /**
+     * 인스턴스를 만들 생성자의 파라미터 (필드 이름) , 빈 목록이면 기본 생성자
+     * => lombok 생성자는 아직 보이지 않을 수 있으므로 애너테이션으로 판단
+     *    (@AllArgsConstructor / @Builder / @Value 는 필드 선언 순서대로 파라미터를 받음)
+     * => 직접 선언한 생성자는 파라미터 이름 , 타입이 모두 필드와 같은 것 중 파라미터가 가장 많은 것
+     */
+    private List<String> constructorParams(TypeElement type, Set<String> lombok,
+                                           Map<String, VariableElement> fields, boolean hasFinalField) {
+        List<ExecutableElement> declared = new ArrayList<>();
+        boolean onlyNoArgs = true;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            onlyNoArgs &= constructor.getParameters().isEmpty();
+            if (!constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                declared.add(constructor);
+            }
+        }
+
+        if (lombok.contains("NoArgsConstructor")) {
+            return Collections.emptyList();
+        }
+        if (onlyNoArgs) {
+            // 생성자가 없으면 컴파일러 기본 생성자가 보이지만 lombok 생성자가 있으면 만들어지지 않음
+            if (lombok.contains("AllArgsConstructor") || lombok.contains("Builder") || lombok.contains("Value")) {
+                return new ArrayList<>(fields.keySet());
+            }
+            if (hasFinalField && (lombok.contains("Data") || lombok.contains("RequiredArgsConstructor"))) {
+                return null;
+            }
+            return Collections.emptyList();
+        }
+
+        ExecutableElement best = null;
+        for (ExecutableElement constructor : declared) {
+            boolean matches = true;
+            for (VariableElement param : constructor.getParameters()) {
+                VariableElement field = fields.get(param.getSimpleName().toString());
+                if (field == null || !processingEnv.getTypeUtils().isSameType(field.asType(), param.asType())) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches && (best == null || constructor.getParameters().size() > best.getParameters().size())) {
+                best = constructor;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        List<String> params = new ArrayList<>();
+        for (VariableElement param : best.getParameters()) {
+            params.add(param.getSimpleName().toString());
+        }
+        return params;
+    }
+
+    private String setterOf(TypeElement type, VariableElement field, Set<String> classLombok) {
+        if (field.getModifiers().contains(Modifier.FINAL)) {
+            return null;
+        }
+        String name = field.getSimpleName().toString();
+        String property = field.asType().getKind() == TypeKind.BOOLEAN && name.startsWith("is")
+                && name.length() > 2 && Character.isUpperCase(name.charAt(2)) ? name.substring(2) : name;
+        String setter = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(setter)
+                    && method.getParameters().size() == 1
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)) {
+                return setter;
+            }
+        }
+        if (classLombok.contains("Data") || classLombok.contains("Setter")
+                || lombokAnnotations(field).contains("Setter")) {
+            return setter;
+        }
+        return null;
+    }
+
+    private Set<String> lombokAnnotations(Element element) {
+        Set<String> names = new HashSet<>();
+        element.getAnnotationMirrors().forEach(mirror -> {
+            String name = mirror.getAnnotationType().toString();
+            if (name.startsWith(LOMBOK)) {
+                names.add(name.substring(LOMBOK.length()));
+            }
+        });
+        return names;
+    }
+
+    private void write(TypeElement type, ProjectionModel model) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String dtoName = type.getSimpleName().toString();
+        String className = dtoName + "Projection";
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? className : packageName + "." + className, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(new ProjectionWriter(packageName, dtoName, className, model).render());
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * 생성할 프로젝션 정보
+     * => properties 순서 = 생성되는 클래스의 프로퍼티 자리 번호
+     *    앞의 constructorArity 개는 생성자 파라미터 (0 이면 기본 생성자) , 나머지는 setter
+     */
+    static class ProjectionModel {
+        final int constructorArity;
+        final List<Property> properties = new ArrayList<>();
+
+        ProjectionModel(int constructorArity) {
+            this.constructorArity = constructorArity;
+        }
+    }
+
+    /**
+     * setter 가 null 이면 생성자 파라미터
+     */
+    static class Property {
+        final String name;
+        final VariableElement field;
+        final String setter;
+
+        Property(String name, VariableElement field, String setter) {
+            this.name = name;
+            this.field = field;
+            this.setter = setter;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package study.querydsl.processor;
+
+import study.querydsl.processor.ProjectionProcessor.ProjectionModel;
+import study.querydsl.processor.ProjectionProcessor.Property;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.util.List;
+
+/**
+ * ProjectionModel => {DTO}Projection 소스
+ * => 생성되는 클래스는 querydsl-core 에만 의존
+ */
+class ProjectionWriter {
+
+    private final String packageName;
+    private final String dtoName;
+    private final String className;
+    private final ProjectionModel model;
+    private final StringBuilder out = new StringBuilder(4096);
+
+    ProjectionWriter(String packageName, String dtoName, String className, ProjectionModel model) {
+        this.packageName = packageName;
+        this.dtoName = dtoName;
+        this.className = className;
+        this.model = model;
+    }
+
+    String render() {
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";");
+            line("");
+        }
+        line("import com.querydsl.core.types.Expression;");
+        line("import com.querydsl.core.types.FactoryExpressionBase;");
+        line("import com.querydsl.core.types.Operation;");
+        line("import com.querydsl.core.types.Ops;");
+        line("import com.querydsl.core.types.Path;");
+        line("import com.querydsl.core.types.Visitor;");
+        line("");
+        line("import java.util.Arrays;");
+        line("import java.util.Collections;");
+        line("import java.util.List;");
+        line("");
+        line("/**");
+        line(" * " + dtoName + " 프로젝션 (ProjectionProcessor 가 생성 , 직접 수정하지 말 것)");
+        line(" * => 인자의 별칭(또는 경로 이름)으로 프로퍼티를 찾는 건 생성 시 한 번");
+        line(" * => newInstance 는 리플렉션 없이 " + (model.constructorArity > 0 ? "생성자 / " : "") + "setter 직접 호출");
+        line(" */");
+        line("public final class " + className + " extends FactoryExpressionBase<" + dtoName + "> {");
+        line("");
+        line("    private static final long serialVersionUID = 1L;");
+        line("");
+        line("    private final List<Expression<?>> args;");
+        line("    private final int[] slots;");
+        line("");
+        line("    private " + className + "(Expression<?>[] args) {");
+        line("        super(" + dtoName + ".class);");
+        line("        this.args = Collections.unmodifiableList(Arrays.asList(args.clone()));");
+        line("        this.slots = new int[args.length];");
+        line("        for (int i = 0; i < args.length; i++) {");
+        line("            slots[i] = slotOf(args[i]);");
+        line("        }");
+        line("    }");
+        line("");
+        line("    public static " + className + " of(Expression<?>... args) {");
+        line("        return new " + className + "(args);");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public List<Expression<?>> getArgs() {");
+        line("        return args;");
+        line("    }");
+        line("");
+        newInstance();
+        line("");
+        line("    @Override");
+        line("    public <R, C> R accept(Visitor<R, C> v, C context) {");
+        line("        return v.visit(this, context);");
+        line("    }");
+        line("");
+        slotOf();
+        line("}");
+        return out.toString();
+    }
+
+    /**
+     * null 값은 건너뜀 (Projections.bean 과 같음) => 생성자 파라미터면 기본값
+     */
+    private void newInstance() {
+        List<Property> properties = model.properties;
+        int arity = model.constructorArity;
+
+        line("    @Override");
+        line("    @SuppressWarnings(\"unchecked\")");
+        line("    public " + dtoName + " newInstance(Object... values) {");
+        if (arity == 0) {
+            line("        " + dtoName + " dto = new " + dtoName + "();");
+        } else {
+            StringBuilder params = new StringBuilder();
+            for (int i = 0; i < arity; i++) {
+                Property property = properties.get(i);
+                TypeMirror type = property.field.asType();
+                line("        " + type + " " + local(i) + " = " + defaultValue(type) + ";");
+                params.append(i > 0 ? ", " : "").append(local(i));
+            }
+            line("        for (int i = 0; i < values.length; i++) {");
+            line("            Object value = values[i];");
+            line("            if (value == null) {");
+            line("                continue;");
+            line("            }");
+            line("            switch (slots[i]) {");
+            for (int i = 0; i < arity; i++) {
+                line("                case " + i + ":");
+                line("                    " + local(i) + " = " + convert(properties.get(i).field.asType()) + ";");
+                line("                    break;");
+            }
+            line("                default:");
+            line("                    break;");
+            line("            }");
+            line("        }");
+            line("        " + dtoName + " dto = new " + dtoName + "(" + params + ");");
+        }
+        if (properties.size() > arity) {
+            line("        for (int i = 0; i < values.length; i++) {");
+            line("            Object value = values[i];");
+            line("            if (value == null) {");
+            line("                continue;");
+            line("            }");
+            line("            switch (slots[i]) {");
+            for (int i = arity; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                line("                case " + i + ":");
+                line("                    dto." + property.setter + "(" + convert(property.field.asType()) + ");");
+                line("                    break;");
+            }
+            line("                default:");
+            line("                    break;");
+            line("            }");
+            line("        }");
+        }
+        line("        return dto;");
+        line("    }");
+    }
+
+    private void slotOf() {
+        line("    private static int slotOf(Expression<?> expr) {");
+        line("        String name;");
+        line("        if (expr instanceof Path) {");
+        line("            name = ((Path<?>) expr).getMetadata().getName();");
+        line("        } else if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {");
+        line("            name = ((Path<?>) ((Operation<?>) expr).getArg(1)).getMetadata().getName();");
+        line("        } else {");
+        line("            throw new IllegalArgumentException(\"별칭이 없는 표현식 : \" + expr);");
+        line("        }");
+        line("        switch (name) {");
+        for (int i = 0; i < model.properties.size(); i++) {
+            line("            case \"" + model.properties.get(i).name + "\":");
+            line("                return " + i + ";");
+        }
+        line("            default:");
+        line("                throw new IllegalArgumentException(\"" + dtoName + " 에 없는 프로퍼티 : \" + name);");
+        line("        }");
+        line("    }");
+    }
+
+    private static String local(int slot) {
+        return "p" + slot;
+    }
+
+    /**
+     * 숫자 기본형은 Number 로 받아서 변환 (count / max 서브쿼리가 Long 으로 오는 경우)
+     */
+    private static String convert(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+                return "((Number) value).intValue()";
+            case LONG:
+                return "((Number) value).longValue()";
+            case SHORT:
+                return "((Number) value).shortValue()";
+            case BYTE:
+                return "((Number) value).byteValue()";
+            case DOUBLE:
+                return "((Number) value).doubleValue()";
+            case FLOAT:
+                return "((Number) value).floatValue()";
+            case BOOLEAN:
+                return "(Boolean) value";
+            case CHAR:
+                return "(Character) value";
+            default:
+                return "(" + type + ") value";
+        }
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        if (!type.getKind().isPrimitive()) {
+            return "null";
+        }
+        return type.getKind() == TypeKind.BOOLEAN ? "false" : type.getKind() == TypeKind.CHAR ? "'\\0'" : "0";
+    }
+
+    private void line(String text) {
+        out.append(text).append('\n');
+    }
+}
@@ -0,0 +1,83 @@
+package study.querydsl.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.QuerydslApplication;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 인메모리 H2 + 스프링 컨텍스트
+ * => SQL 로그 , p6spy 로그는 측정값을 흐리므로 끔
+ * => H2 는 데이터가 안 바뀌었으면 같은 세션의 같은 쿼리 + 파라미터에 이전 결과를 그대로 돌려주므로 (OPTIMIZE_REUSE_RESULTS) 끔
+ *    켜 두면 반복 실행하는 조회 벤치마크가 인덱스 / 스캔 대신 결과 재사용을 측정함
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    private static final int TEAM_COUNT = 10;
+    private static final int INSERT_BATCH = 10_000;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkDatabase(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkDatabase start(String... extraProperties) {
+        List<String> properties = new ArrayList<>();
+        properties.add("spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE");
+        properties.add("logging.level.org.hibernate.SQL=warn");
+        properties.add("logging.level.org.hibernate.type=warn");
+        properties.add("decorator.datasource.p6spy.enable-logging=false");
+        for (String property : extraProperties) {
+            properties.add(property);
+        }
+
+        // builder.properties(...) 는 기본값이라 application.yml 에 밀리므로 커맨드라인 인자 (--key=value) 로 넘김
+        String[] args = properties.stream().map(property -> "--" + property).toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+        return new BenchmarkDatabase(context);
+    }
+
+    /**
+     * 팀 10개 + 회원 rows 건을 JDBC 배치로 직접 넣음
+     */
+    public BenchmarkDatabase seed(int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> teams = new ArrayList<>();
+        for (long teamId = 1; teamId <= TEAM_COUNT; teamId++) {
+            teams.add(new Object[]{teamId, "team" + teamId});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name) values (?, ?)", teams);
+
+        List<Object[]> members = new ArrayList<>(INSERT_BATCH);
+        for (long id = 1; id <= rows; id++) {
+            members.add(new Object[]{id, "member" + id, (int) (id % 100), id % TEAM_COUNT + 1});
+            if (members.size() == INSERT_BATCH || id == rows) {
+                jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+                members.clear();
+            }
+        }
+        return this;
+    }
+
+    public EntityManagerFactory entityManagerFactory() {
+        return context.getBean(EntityManagerFactory.class);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
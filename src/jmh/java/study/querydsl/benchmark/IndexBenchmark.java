@@ -0,0 +1,95 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * username / age / team.name 조건 조회 : 인덱스 있음 vs 없음 (같은 데이터에서 인덱스만 drop)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndexBenchmark {
+
+    @Param({"100000"})
+    int rows;
+
+    @Param({"true", "false"})
+    boolean indexed;
+
+    BenchmarkDatabase database;
+    EntityManagerFactory emf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start().seed(rows);
+        emf = database.entityManagerFactory();
+        if (!indexed) {
+            JdbcTemplate jdbcTemplate = database.getBean(JdbcTemplate.class);
+            jdbcTemplate.execute("drop index idx_member_username");
+            jdbcTemplate.execute("drop index idx_member_age");
+            jdbcTemplate.execute("drop index idx_team_name");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Member> usernameEq() {
+        return query(em -> new JPAQueryFactory(em)
+                .selectFrom(member)
+                .where(member.username.eq("member" + rows / 2))
+                .fetch());
+    }
+
+    @Benchmark
+    public List<Member> ageRange() {
+        return query(em -> new JPAQueryFactory(em)
+                .selectFrom(member)
+                .where(member.age.between(40, 40))
+                .limit(100)
+                .fetch());
+    }
+
+    @Benchmark
+    public Long teamNameJoin() {
+        return query(em -> new JPAQueryFactory(em)
+                .select(member.count())
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.eq("team3"))
+                .fetchOne());
+    }
+
+    private <T> T query(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberDtoProjection;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.dto.UserDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 프로젝션 방식별 비용 비교 (QuerydslInterTest 의 방식들)
+ * => generated : @GenerateProjection 으로 생성된 MemberDtoProjection (bean 과 같은 별칭 매핑 , 리플렉션 없음)
+ * => 결과는 쿼리 1회 기준 ops/s
+ * => 행당 할당량은 gc.alloc.rate.norm (B/op) 을 rows 로 나눠서 봄
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ProjectionBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    BenchmarkDatabase database;
+    EntityManagerFactory emf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start().seed(rows);
+        emf = database.entityManagerFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> bean() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return new JPAQueryFactory(em)
+                    .select(Projections.bean(MemberDto.class, member.username, member.age))
+                    .from(member)
+                    .fetch();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<MemberDto> fields() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return new JPAQueryFactory(em)
+                    .select(Projections.fields(MemberDto.class, member.username, member.age))
+                    .from(member)
+                    .fetch();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> constructor() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return new JPAQueryFactory(em)
+                    .select(Projections.constructor(UserDto.class, member.username, member.age))
+                    .from(member)
+                    .fetch();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return new JPAQueryFactory(em)
+                    .select(new QMemberDto(member.username, member.age))
+                    .from(member)
+                    .fetch();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<MemberDto> generated() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return new JPAQueryFactory(em)
+                    .select(MemberDtoProjection.of(member.username, member.age))
+                    .from(member)
+                    .fetch();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public List<Tuple> tuple() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return new JPAQueryFactory(em)
+                    .select(member.username, member.age)
+                    .from(member)
+                    .fetch();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.ReadOnlyQueries;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 관리 엔티티 조회 vs 읽기 전용 조회
+ * => 트랜잭션 시작 , 전체 회원 조회 , 커밋(flush) 까지 1회
+ * => gc.alloc.rate.norm 차이가 스냅샷 비용 , 처리량 차이가 flush 변경 감지 비용
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ReadOnlyBenchmark {
+
+    @Param({"10000", "100000"})
+    int rows;
+
+    BenchmarkDatabase database;
+    EntityManagerFactory emf;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start().seed(rows);
+        emf = database.entityManagerFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int managed() {
+        return loadAndCommit(false);
+    }
+
+    @Benchmark
+    public int readOnly() {
+        return loadAndCommit(true);
+    }
+
+    private int loadAndCommit(boolean readOnly) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            JPAQuery<Member> query = new JPAQueryFactory(em).selectFrom(member);
+            int size = (readOnly ? ReadOnlyQueries.readOnly(query) : query).fetch().size();
+            em.getTransaction().commit();
+            return size;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.BulkInsertSupport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 rows 건 insert (한 트랜잭션 , 100 건마다 flush / clear) : 변경 전 설정 vs 변경 후 설정
+ * => legacy : allocationSize 1 (insert 마다 시퀀스 조회) , JDBC 배치 / insert 정렬 없음
+ * => batched : allocationSize 50 + pooled-lo , batch_size 100 , order_inserts (application.yml 그대로)
+ * => 같은 코드 경로에서 설정만 바꾸므로 차이가 곧 시퀀스 할당 + 배치 효과
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SaveAllBenchmark {
+
+    private static final int FLUSH_SIZE = 100;
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    @Param({"legacy", "batched"})
+    String config;
+
+    BenchmarkDatabase database;
+    EntityManagerFactory emf;
+    JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = "legacy".equals(config)
+                ? BenchmarkDatabase.start(
+                        "spring.jpa.mapping-resources=META-INF/legacy-id-orm.xml",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=0",
+                        "spring.jpa.properties.hibernate.order_inserts=false",
+                        "spring.jpa.properties.hibernate.order_updates=false")
+                : BenchmarkDatabase.start();
+        emf = database.entityManagerFactory();
+        jdbcTemplate = database.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * 테이블이 계속 커지면 뒤 iteration 일수록 인덱스 갱신 비용이 커지므로 매번 비움
+     */
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("delete from member");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public long saveAll() {
+        List<Member> members = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            members.add(new Member("member" + i, i % 100));
+        }
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            long count = BulkInsertSupport.persistAll(em, members, FLUSH_SIZE);
+            em.getTransaction().commit();
+            return count;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀 이름 조회 : DB (읽기 전용 트랜잭션 + SQL) vs 메모리 스냅샷
+ * => memoized 는 같은 조건 반복 (메모 적중) , evaluated 는 매번 다른 상수라 메모 없이 querydsl-collections 평가
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnapshotBenchmark {
+
+    BenchmarkDatabase database;
+    TeamJpaRepository teamJpaRepository;
+    int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start().seed(0);
+        teamJpaRepository = database.getBean(TeamJpaRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Team> database() {
+        return teamJpaRepository.findAllReadOnly(team.name.eq("team3"));
+    }
+
+    @Benchmark
+    public List<Team> memoized() {
+        return teamJpaRepository.findAllCached(team.name.eq("team3"));
+    }
+
+    @Benchmark
+    public List<Team> evaluated() {
+        counter++;
+        return teamJpaRepository.findAllCached(team.name.eq("team3").and(team.id.gt((long) -counter)), team.id.asc());
+    }
+}
@@ -0,0 +1,63 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.repository.MemberSearchRepository;
+import study.querydsl.repository.MemberSqlRepository;
+
+import java.util.List;
+
+/**
+ * 회원 + 팀 이름 목록 : JPA (MemberSearchRepository) vs querydsl-sql (MemberSqlRepository)
+ * => 같은 조건 , 같은 MemberTeamDto 결과
+ * => teamName : 팀 하나 (rows / 10 건) , "" : 조건 없음 (전체)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class SqlBenchmark {
+
+    @Param({"10000", "100000"})
+    int rows;
+
+    @Param({"team3", ""})
+    String teamName;
+
+    BenchmarkDatabase database;
+    MemberSearchRepository memberSearchRepository;
+    MemberSqlRepository memberSqlRepository;
+    MemeberSearchDto condition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.start().seed(rows);
+        memberSearchRepository = database.getBean(MemberSearchRepository.class);
+        memberSqlRepository = database.getBean(MemberSqlRepository.class);
+
+        condition = new MemeberSearchDto();
+        condition.setTeamName(teamName.isEmpty() ? null : teamName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> jpa() {
+        return memberSearchRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> sql() {
+        return memberSqlRepository.search(condition);
+    }
+}
@@ -0,0 +1,48 @@
+package study.querydsl;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.dto.TeamStatDto;
+import study.querydsl.repository.MemberAsyncRepository;
+import study.querydsl.repository.MemberAsyncRepository.MemberSearchResult;
+import study.querydsl.stats.TeamStatisticsView;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CompletableFuture 를 반환하면 톰캣 스레드는 바로 반납되고 DB 작업이 끝나면 응답 (서블릿 비동기)
+ */
+@RestController
+public class MemberController {
+
+    private final MemberAsyncRepository memberAsyncRepository;
+    private final TeamStatisticsView teamStatisticsView;
+
+    public MemberController(MemberAsyncRepository memberAsyncRepository, TeamStatisticsView teamStatisticsView) {
+        this.memberAsyncRepository = memberAsyncRepository;
+        this.teamStatisticsView = teamStatisticsView;
+    }
+
+    @GetMapping("/members")
+    public CompletableFuture<MemberSearchResult> searchMembers(MemeberSearchDto condition, Pageable pageable) {
+        return memberAsyncRepository.searchWithTeamStats(condition, pageable);
+    }
+
+    /**
+     * 대시보드용 팀 통계 => DB 조회 없이 메모리 뷰에서 읽음 (/members 의 teamStats 와 같은 형식)
+     */
+    @GetMapping("/teams/stats")
+    public List<TeamStatDto> teamStats() {
+        return memberAsyncRepository.findTeamStats();
+    }
+
+    @GetMapping("/teams/{teamId}/stats")
+    public ResponseEntity<TeamStatDto> teamStats(@PathVariable Long teamId) {
+        return ResponseEntity.of(teamStatisticsView.get(teamId).map(TeamStatDto::from));
+    }
+}
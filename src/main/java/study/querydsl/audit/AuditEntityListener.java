@@ -0,0 +1,107 @@
+package study.querydsl.audit;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Member / Team 변경 이력을 모았다가 커밋된 뒤에만 AuditWriter 큐에 넣음
+ * => 롤백된 변경은 기록하지 않고 , insert 는 트랜잭션 밖에서 일어나므로 쓰기 지연 시간에 영향 없음
+ * => 스프링 빈 컨테이너 (SpringBeanContainer) 가 생성하므로 생성자 주입 가능
+ * => JPQL 벌크 연산은 엔티티 콜백이 없으므로 기록되지 않음
+ */
+public class AuditEntityListener {
+
+    private final AuditWriter auditWriter;
+
+    public AuditEntityListener(AuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
+    }
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        record(entity, AuditRecord.Action.INSERT);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        record(entity, AuditRecord.Action.UPDATE);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        record(entity, AuditRecord.Action.DELETE);
+    }
+
+    private void record(Object entity, AuditRecord.Action action) {
+        AuditRecord record = toRecord(entity, action);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            auditWriter.submit(record);
+            return;
+        }
+        pending().records.add(record);
+    }
+
+    /**
+     * 현재 트랜잭션의 synchronization 에서 찾음
+     * => 리소스로 바인딩하면 REQUIRES_NEW 로 중단된 바깥 트랜잭션과 섞이므로 synchronization 목록을 사용
+     */
+    private PendingAudit pending() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingAudit && ((PendingAudit) synchronization).owner == this) {
+                return (PendingAudit) synchronization;
+            }
+        }
+        PendingAudit pending = new PendingAudit(this);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private static AuditRecord toRecord(Object entity, AuditRecord.Action action) {
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            return new AuditRecord(Member.class.getSimpleName(), member.getId(), action,
+                    "username=" + member.getUsername() + ", age=" + member.getAge() + ", teamId=" + idOf(member.getTeam()));
+        }
+        if (entity instanceof Team) {
+            Team team = (Team) entity;
+            return new AuditRecord(Team.class.getSimpleName(), team.getId(), action, "name=" + team.getName());
+        }
+        return new AuditRecord(entity.getClass().getSimpleName(), null, action, entity.toString());
+    }
+
+    /**
+     * 프록시를 초기화하지 않고 id 만 꺼냄
+     */
+    private static Long idOf(Team team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team.getId();
+    }
+
+    private static class PendingAudit implements TransactionSynchronization {
+        private final AuditEntityListener owner;
+        private final List<AuditRecord> records = new ArrayList<>();
+
+        PendingAudit(AuditEntityListener owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void afterCommit() {
+            owner.auditWriter.submit(records);
+        }
+    }
+}
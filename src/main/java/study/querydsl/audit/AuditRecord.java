@@ -0,0 +1,33 @@
+package study.querydsl.audit;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * 변경 이력 한 건 (큐에 들어가는 불변 객체)
+ * => 엔티티를 참조하지 않고 필요한 값만 복사해 둠 (커밋 후 다른 스레드에서 읽으므로)
+ */
+@Getter
+@ToString
+public class AuditRecord {
+
+    public enum Action {
+        INSERT, UPDATE, DELETE
+    }
+
+    private final String entityType;
+    private final Long entityId;
+    private final Action action;
+    private final String payload;
+    private final Date changedAt;
+
+    public AuditRecord(String entityType, Long entityId, Action action, String payload) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.payload = payload;
+        this.changedAt = new Date();
+    }
+}
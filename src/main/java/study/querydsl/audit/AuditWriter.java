@@ -0,0 +1,221 @@
+package study.querydsl.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 감사 로그 write-behind
+ * => 커밋된 변경 이력을 큐에 넣으면 백그라운드 스레드가 batchSize 건씩 JDBC 배치로 audit_log 에 insert
+ * => 큐가 가득 차면 (backpressure)
+ *    BLOCK : offerTimeout 동안 자리가 나길 기다리고 그래도 가득 차 있으면 호출 스레드에서 직접 insert (유실 없음)
+ *            호출 스레드는 보통 커밋 직후 (afterCommit) 라서 끝난 트랜잭션의 커넥션이 아직 바인딩되어 있음
+ *            그대로 쓰면 커밋되지 않으므로 REQUIRES_NEW 트랜잭션으로 저장
+ *    DROP  : 버리고 dropped 수만 증가
+ * => 종료 시 (@PreDestroy) 남은 이력을 모두 저장하고 끝남 , DataSource 보다 먼저 종료됨
+ * => 저장에 실패한 배치는 에러 로그로 남김
+ * => 큐에서 꺼내서 저장하는 동안은 writeLock 을 잡음 (워커 / flush 가 동시에 쓰지 않음)
+ *    flush 는 워커가 이미 꺼내서 저장 중인 배치가 끝날 때까지 기다리므로 반환 후에는 모두 저장되어 있고
+ *    audit_log_id 순서 = 큐에 들어간 순서 (BLOCK 으로 호출 스레드가 직접 저장한 건만 예외)
+ */
+@Slf4j
+@Component
+public class AuditWriter {
+
+    public enum Overflow {
+        BLOCK, DROP
+    }
+
+    private static final String INSERT_SQL =
+            "insert into audit_log (entity_type, entity_id, action, payload, changed_at) values (?, ?, ?, ?, ?)";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate callerTransaction;
+    private final BoundedAuditQueue queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final Overflow overflow;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writtenOnCaller = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate,
+                       @Value("${audit.queue-capacity:10000}") int queueCapacity,
+                       @Value("${audit.batch-size:100}") int batchSize,
+                       @Value("${audit.flush-interval-ms:200}") long flushIntervalMillis,
+                       @Value("${audit.offer-timeout-ms:50}") long offerTimeoutMillis,
+                       @Value("${audit.overflow:BLOCK}") Overflow overflow) {
+        this.jdbcTemplate = jdbcTemplate;
+        // JPA 트랜잭션 매니저는 엔티티 리스너 (AuditEntityListener) 를 통해 이 빈에 의존하므로 같은 DataSource 의 JDBC 트랜잭션 매니저
+        this.callerTransaction = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.callerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new BoundedAuditQueue(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.overflow = overflow;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        flush();
+    }
+
+    public void submit(Collection<AuditRecord> records) {
+        for (AuditRecord record : records) {
+            submit(record);
+        }
+    }
+
+    public void submit(AuditRecord record) {
+        if (queue.offer(record)) {
+            if (queue.size() >= batchSize) {
+                LockSupport.unpark(worker);
+            }
+            return;
+        }
+        if (overflow == Overflow.DROP) {
+            dropped.increment();
+            return;
+        }
+
+        LockSupport.unpark(worker);
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (queue.offer(record)) {
+                return;
+            }
+        }
+        writeOnCaller(record);
+    }
+
+    /**
+     * 큐에 남은 이력을 호출 스레드에서 모두 저장 (워커가 저장 중인 배치가 있으면 끝날 때까지 기다림)
+     */
+    public void flush() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        writeLock.lock();
+        try {
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getWrittenOnCaller() {
+        return writtenOnCaller.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            int drained;
+            writeLock.lock();
+            try {
+                drained = queue.drainTo(batch, batchSize);
+                if (drained > 0) {
+                    write(batch);
+                    batch.clear();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        try {
+            insert(batch);
+            written.add(batch.size());
+        } catch (DataAccessException e) {
+            failed.add(batch.size());
+            log.error("감사 로그 {} 건 저장 실패 : {}", batch.size(), batch, e);
+        }
+    }
+
+    /**
+     * 새 트랜잭션으로 저장하고 커밋된 뒤에만 저장 수에 합산
+     */
+    private void writeOnCaller(AuditRecord record) {
+        List<AuditRecord> batch = Collections.singletonList(record);
+        try {
+            callerTransaction.executeWithoutResult(status -> insert(batch));
+            written.increment();
+            writtenOnCaller.increment();
+        } catch (DataAccessException | TransactionException e) {
+            failed.increment();
+            log.error("감사 로그 {} 건 저장 실패 (호출 스레드) : {}", batch.size(), batch, e);
+        }
+    }
+
+    private void insert(List<AuditRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, record) -> {
+            ps.setString(1, record.getEntityType());
+            ps.setObject(2, record.getEntityId());
+            ps.setString(3, record.getAction().name());
+            ps.setString(4, record.getPayload());
+            ps.setTimestamp(5, new Timestamp(record.getChangedAt().getTime()));
+        });
+    }
+}
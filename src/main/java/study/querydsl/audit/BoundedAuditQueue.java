@@ -0,0 +1,60 @@
+package study.querydsl.audit;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 크기 제한이 있는 lock-free 큐
+ * => ConcurrentLinkedQueue + CAS 로 자리를 먼저 예약하고 넣음 (capacity 를 넘지 않음)
+ */
+class BoundedAuditQueue {
+
+    private final ConcurrentLinkedQueue<AuditRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    BoundedAuditQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity 는 1 이상이어야 함 : " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return 가득 차서 넣지 못하면 false
+     */
+    boolean offer(AuditRecord record) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        queue.offer(record);
+        return true;
+    }
+
+    /**
+     * 최대 max 건을 꺼내서 batch 에 담음
+     */
+    int drainTo(List<AuditRecord> batch, int max) {
+        int drained = 0;
+        AuditRecord record;
+        while (drained < max && (record = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(record);
+            drained++;
+        }
+        return drained;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
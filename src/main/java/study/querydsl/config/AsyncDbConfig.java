@@ -0,0 +1,66 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.querydsl.metrics.QueryMetricsContext;
+import study.querydsl.replication.ReadYourWrites;
+import study.querydsl.repository.support.AsyncQueries;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * 비동기 조회용 DB 전용 executor
+ * => 스레드 수 = 커넥션 풀 크기 (그 이상은 어차피 커넥션을 기다리며 블로킹됨)
+ * => 큐가 가득 차면 톰캣 스레드가 대신 실행하지 않고 거절 (AbortPolicy)
+ */
+@Configuration
+public class AsyncDbConfig {
+
+    public static final String DB_EXECUTOR = "dbExecutor";
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean(name = DB_EXECUTOR)
+    public ThreadPoolTaskExecutor dbExecutor(DataSource dataSource,
+                                             @Value("${db.executor.pool-size:0}") int poolSize,
+                                             @Value("${db.executor.queue-capacity:200}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : connectionPoolSize(dataSource);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("db-");
+        // statement 를 요청한 엔드포인트 / 메서드에 합산 + 쓰기 후 primary 고정 상태 전달
+        executor.setTaskDecorator(task -> QueryMetricsContext.wrap(ReadYourWrites.wrap(task)));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean
+    public AsyncQueries asyncQueries(@Qualifier(DB_EXECUTOR) ThreadPoolTaskExecutor dbExecutor,
+                                     PlatformTransactionManager transactionManager) {
+        return new AsyncQueries(dbExecutor, transactionManager);
+    }
+
+    /**
+     * p6spy 가 DataSource 를 감싸고 있으므로 instanceof 대신 unwrap 으로 확인
+     */
+    private static int connectionPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            // 풀 크기를 알 수 없으면 기본값
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
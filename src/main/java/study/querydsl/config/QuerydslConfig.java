@@ -0,0 +1,33 @@
+package study.querydsl.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.querydsl.repository.support.CachingQueryExecutor;
+import study.querydsl.repository.support.ChunkedBulkExecutor;
+
+import javax.persistence.EntityManager;
+
+@Configuration
+public class QuerydslConfig {
+
+    /**
+     * 쿼리 모양별 JPQL 캐시 (LRU)
+     */
+    @Bean
+    public CachingQueryExecutor cachingQueryExecutor(EntityManager em,
+                                                     @Value("${querydsl.query-cache.max-size:512}") int maxSize) {
+        return new CachingQueryExecutor(em, maxSize);
+    }
+
+    /**
+     * pk 범위 청크 단위 벌크 수정 / 삭제
+     */
+    @Bean
+    public ChunkedBulkExecutor chunkedBulkExecutor(EntityManager em, PlatformTransactionManager transactionManager,
+                                                   ApplicationEventPublisher eventPublisher) {
+        return new ChunkedBulkExecutor(em, transactionManager, eventPublisher);
+    }
+}
@@ -0,0 +1,32 @@
+package study.querydsl.config;
+
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * querydsl-sql (엔티티 없이 JDBC 로 바로 DTO 를 만드는 읽기 전용 경로)
+ * => SpringConnectionProvider : 현재 트랜잭션에 묶인 커넥션을 사용 (JpaTransactionManager 와 같은 커넥션)
+ *    트랜잭션 밖에서 호출하면 IllegalStateException
+ * => SpringExceptionTranslator : SQLException 을 스프링 DataAccessException 으로 변환
+ */
+@Configuration
+public class QuerydslSqlConfig {
+
+    @Bean
+    public com.querydsl.sql.Configuration querydslSqlConfiguration() {
+        com.querydsl.sql.Configuration configuration = new com.querydsl.sql.Configuration(H2Templates.builder().build());
+        configuration.setExceptionTranslator(new SpringExceptionTranslator());
+        return configuration;
+    }
+
+    @Bean
+    public SQLQueryFactory sqlQueryFactory(com.querydsl.sql.Configuration querydslSqlConfiguration, DataSource dataSource) {
+        return new SQLQueryFactory(querydslSqlConfiguration, new SpringConnectionProvider(dataSource));
+    }
+}
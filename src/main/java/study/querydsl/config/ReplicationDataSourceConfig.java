@@ -0,0 +1,76 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.querydsl.replication.ReplicaLagMonitor;
+import study.querydsl.replication.ReplicationDataSources;
+import study.querydsl.replication.ReplicationProperties;
+import study.querydsl.replication.ReplicationRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * replication.enabled=true 일 때 DataSource 를 primary / replica 라우팅으로 교체
+ * => 꺼져 있으면 스프링 부트 기본 DataSource (spring.datasource) 그대로
+ * => primary : spring.datasource (+ spring.datasource.hikari) , replica : replication.replicas
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replication", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicationProperties.class)
+public class ReplicationDataSourceConfig {
+
+    @Bean
+    public ReplicationDataSources replicationDataSources(DataSourceProperties dataSourceProperties,
+                                                         ReplicationProperties properties, Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicationDataSources.PRIMARY);
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        List<ReplicationProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicationProperties.Replica replica = configured.get(i);
+            String name = replica.getName() != null ? replica.getName() : "replica-" + i;
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.put(name, dataSource);
+        }
+        return new ReplicationDataSources(primary, replicas);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicationDataSources replicationDataSources, ReplicationProperties properties) {
+        return new ReplicaLagMonitor(replicationDataSources, properties.getMaxLagMs());
+    }
+
+    /**
+     * 커넥션은 첫 statement 때 가져옴 => 그때는 트랜잭션의 readOnly 여부가 정해져 있음
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicationDataSources replicationDataSources, ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicationRoutingDataSource(replicationDataSources, replicaLagMonitor));
+    }
+}
@@ -0,0 +1,12 @@
+package study.querydsl.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 (EntityCounts 주기적 보정)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
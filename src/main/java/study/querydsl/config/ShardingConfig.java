@@ -0,0 +1,81 @@
+package study.querydsl.config;
+
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import study.querydsl.repository.ShardedMemberRepository;
+import study.querydsl.sharding.ShardDataSources;
+import study.querydsl.sharding.ShardRouter;
+import study.querydsl.sharding.ShardedQueryExecutor;
+import study.querydsl.sharding.ShardingProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sharding.enabled=true 일 때 member / team 을 여러 DB (sharding.shards) 에 나눠 저장 (ShardedMemberRepository)
+ * => 기본 DataSource (spring.datasource , JPA) 는 그대로 , 샤드는 querydsl-sql 로만 접근
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        List<ShardingProperties.Shard> configured = properties.getShards();
+        for (int i = 0; i < configured.size(); i++) {
+            ShardingProperties.Shard shard = configured.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName(shard.getName() != null ? shard.getName() : "shard-" + i);
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shards.add(dataSource);
+        }
+        ShardDataSources dataSources = new ShardDataSources(shards);
+        if (properties.isInitializeSchema()) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("sharding/schema.sql"));
+            dataSources.getShards().forEach(dataSource -> DatabasePopulatorUtils.execute(populator, dataSource));
+        }
+        return dataSources;
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardDataSources shardDataSources) {
+        return new ShardRouter(shardDataSources.size());
+    }
+
+    /**
+     * querydsl-sql Configuration 은 QuerydslSqlConfig 의 것과 따로 (샤드 쪽은 쿼리마다 커넥션을 닫는 리스너가 붙음)
+     */
+    @Bean
+    public ShardedQueryExecutor shardedQueryExecutor(ShardDataSources shardDataSources, ShardingProperties properties) {
+        com.querydsl.sql.Configuration configuration = new com.querydsl.sql.Configuration(H2Templates.builder().build());
+        configuration.setExceptionTranslator(new SpringExceptionTranslator());
+
+        int threads = properties.getExecutorPoolSize();
+        if (threads <= 0) {
+            threads = shardDataSources.getShards().stream().mapToInt(HikariDataSource::getMaximumPoolSize).sum();
+        }
+        return new ShardedQueryExecutor(shardDataSources, configuration, threads, properties.getQueryTimeoutMs());
+    }
+
+    @Bean
+    public ShardedMemberRepository shardedMemberRepository(ShardedQueryExecutor shardedQueryExecutor,
+                                                           ShardRouter shardRouter, ShardDataSources shardDataSources) {
+        return new ShardedMemberRepository(shardedQueryExecutor, shardRouter, shardDataSources);
+    }
+}
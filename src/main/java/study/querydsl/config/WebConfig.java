@@ -0,0 +1,24 @@
+package study.querydsl.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.querydsl.metrics.EndpointMetricsInterceptor;
+import study.querydsl.replication.ReadYourWritesInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EndpointMetricsInterceptor endpointMetricsInterceptor;
+
+    public WebConfig(EndpointMetricsInterceptor endpointMetricsInterceptor) {
+        this.endpointMetricsInterceptor = endpointMetricsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(endpointMetricsInterceptor);
+        // 쓰기 후 primary 고정을 요청 단위로 (replication.enabled 가 아니면 고정될 일이 없음)
+        registry.addInterceptor(new ReadYourWritesInterceptor());
+    }
+}
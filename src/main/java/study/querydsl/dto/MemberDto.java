@@ -3,8 +3,10 @@ package study.querydsl.dto;
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import study.querydsl.processor.GenerateProjection;
 
 @Data
+@GenerateProjection // MemberDtoProjection 생성 (리플렉션 없는 bean / fields 프로젝션)
 @NoArgsConstructor
 public class MemberDto {
 
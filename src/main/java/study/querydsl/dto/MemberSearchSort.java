@@ -0,0 +1,10 @@
+package study.querydsl.dto;
+
+/**
+ * 회원 검색 정렬 조건
+ */
+public enum MemberSearchSort {
+    ID,
+    USERNAME,
+    AGE_DESC
+}
@@ -0,0 +1,21 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class MemberSummaryDto {
+
+    private Long id;
+    private String username;
+    private int age;
+
+    @QueryProjection
+    public MemberSummaryDto(Long id, String username, int age) {
+        this.id = id;
+        this.username = username;
+        this.age = age;
+    }
+}
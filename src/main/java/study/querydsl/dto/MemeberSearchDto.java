@@ -8,5 +8,13 @@ import lombok.NoArgsConstructor;
 public class MemeberSearchDto {
     private String username;
 
-    private int age;
+    private Integer age;
+
+    /* 나이 범위 검색 (이상 / 이하) */
+    private Integer ageGoe;
+    private Integer ageLoe;
+
+    private String teamName;
+
+    private MemberSearchSort sort;
 }
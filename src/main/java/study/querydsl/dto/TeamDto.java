@@ -0,0 +1,20 @@
+package study.querydsl.dto;
+
+import lombok.*;
+import study.querydsl.processor.GenerateProjection;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@GenerateProjection
+public class TeamDto {
+    private Long id;
+    private String name;
+    private String regTime;
+    private String modTime;
+    private List<MemberSummaryDto> members; // 엔티티 대신 평평한 요약 => 직렬화해도 지연 로딩 없음
+}
@@ -0,0 +1,30 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 팀 + 회원 요약을 쿼리 한 번으로 조회한 결과 (GroupBy transform)
+ * => TeamMapper 가 TeamDto 로 변환
+ */
+@Data
+public class TeamProjection {
+
+    private Long id;
+    private String name;
+    private Date regTime;
+    private Date modTime;
+    private List<MemberSummaryDto> members;
+
+    @QueryProjection
+    public TeamProjection(Long id, String name, Date regTime, Date modTime, List<MemberSummaryDto> members) {
+        this.id = id;
+        this.name = name;
+        this.regTime = regTime;
+        this.modTime = modTime;
+        this.members = members;
+    }
+}
@@ -0,0 +1,29 @@
+package study.querydsl.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+import study.querydsl.stats.TeamStatistics;
+
+@Data
+public class TeamStatDto {
+
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private Double averageAge;
+
+    @QueryProjection
+    public TeamStatDto(Long teamId, String teamName, Long memberCount, Double averageAge) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount != null ? memberCount : 0;
+        this.averageAge = averageAge;
+    }
+
+    /**
+     * 메모리 팀 통계 (TeamStatisticsView) => 응답 형식
+     */
+    public static TeamStatDto from(TeamStatistics statistics) {
+        return new TeamStatDto(statistics.getTeamId(), statistics.getTeamName(), statistics.getCount(), statistics.getAvg());
+    }
+}
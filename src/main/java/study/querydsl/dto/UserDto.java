@@ -1,8 +1,10 @@
 package study.querydsl.dto;
 
 import lombok.Data;
+import study.querydsl.processor.GenerateProjection;
 
 @Data
+@GenerateProjection // 기본 생성자가 없어 생성자로 만드는 UserDtoProjection 생성
 public class UserDto {
 
     private String name;
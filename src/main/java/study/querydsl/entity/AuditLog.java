@@ -0,0 +1,43 @@
+package study.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Member / Team 변경 이력 (추가만 함)
+ * => 저장은 AuditWriter 가 JDBC 배치로 직접 insert , 엔티티는 조회 / 테이블 생성용
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@Table(name = "audit_log", indexes = @Index(name = "idx_audit_log_entity", columnList = "entity_type, entity_id"))
+public class AuditLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "audit_log_id")
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(nullable = false, length = 10)
+    private String action;
+
+    @Column(length = 1000)
+    private String payload;
+
+    @Column(name = "changed_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date changedAt;
+}
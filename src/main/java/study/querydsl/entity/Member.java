@@ -1,6 +1,7 @@
 package study.querydsl.entity;
 
 import lombok.*;
+import study.querydsl.audit.AuditEntityListener;
 
 import javax.persistence.*;
 
@@ -9,9 +10,15 @@ import javax.persistence.*;
 @Setter // 실무에선 사용에 주의
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // 기본 생성자를 만들어줌
 @ToString(of = {"id", "username", "age"}) // 자신이 소유한 필드에 대해서만 toString 을 만들어야 함 그외 것들을 가지고 있을 경우 순환 오류 !!
+@EntityListeners(AuditEntityListener.class) // 커밋 후 변경 이력 기록 (write-behind)
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"), // 이름 검색 (search , sendAndParam)
+        @Index(name = "idx_member_age", columnList = "age") // 나이 범위 조건
+})
 public class Member {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50) // 시퀀스를 50 개씩 미리 할당 (pooled-lo)
     @Column(name = "member_id")
     private Long id;
 
@@ -2,6 +2,10 @@ package study.querydsl.entity;
 
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.querydsl.audit.AuditEntityListener;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -13,16 +17,25 @@ import java.util.List;
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // 기본 생성자를 만들어줌
 @ToString(of={"id" , "name"})
 @SuperBuilder
+@Cacheable // 거의 변경되지 않으므로 2차 캐시 사용 (설정은 application.conf)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Team.CACHE_REGION)
+@EntityListeners(AuditEntityListener.class) // 커밋 후 변경 이력 기록 (write-behind)
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name")) // team.name 조건 조인
 public class Team extends BaseEntity {
+    // caffeine 설정 키에 점이 들어가면 찾지 못하므로 클래스 이름 대신 짧은 리전 이름
+    public static final String CACHE_REGION = "team";
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50) // 시퀀스를 50 개씩 미리 할당 (pooled-lo)
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
     @OneToMany(mappedBy = "team" )
+    @BatchSize(size = 100) // 여러 팀의 members 를 처음 접근할 때 팀 100개씩 IN 절로 한 번에 로딩 => N+1 방지
+    // 컬렉션 캐시는 회원 id 만 저장하므로 Member 가 캐시되지 않은 지금은 오히려 회원을 한 건씩 조회함 => 캐시하지 않음
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
@@ -5,13 +5,20 @@ import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 import org.mapstruct.factory.Mappers;
 import study.querydsl.dto.TeamDto;
-import study.querydsl.entity.Team;
+import study.querydsl.dto.TeamProjection;
 
+import java.util.List;
+
+/**
+ * 엔티티가 아닌 조회 결과 (TeamProjection) 만 변환 => 지연 로딩 / 프록시 초기화가 일어날 수 없음
+ */
 @Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface TeamMapper {
     TeamMapper INSTANCE = Mappers.getMapper(TeamMapper.class);
 
     @Mapping(target = "regTime", dateFormat = "yyyy.MM.dd")
     @Mapping(target = "modTime", dateFormat = "yyyy.MM.dd")
-    TeamDto teamToTeamDto(Team Team);
+    TeamDto teamToTeamDto(TeamProjection team);
+
+    List<TeamDto> teamsToTeamDtos(List<TeamProjection> teams);
 }
@@ -0,0 +1,56 @@
+package study.querydsl.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * HTTP 엔드포인트 ("GET /members") 별 응답 시간 + 요청 중 실행된 statement
+ * => 비동기 요청 (CompletableFuture 반환) 은 최초 요청부터 재디스패치가 끝날 때까지를 한 번으로 기록
+ */
+@Component
+public class EndpointMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START = EndpointMetricsInterceptor.class.getName() + ".start";
+
+    private final QueryMetrics queryMetrics;
+
+    public EndpointMetricsInterceptor(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START) == null) {
+            request.setAttribute(START, System.nanoTime());
+        }
+        QueryMetricsContext.enterEndpoint(endpointOf(request));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryMetricsContext.exitEndpoint();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START);
+        if (start != null) {
+            boolean error = ex != null || response.getStatus() >= 500;
+            queryMetrics.recordEndpoint(endpointOf(request), System.nanoTime() - (Long) start, error);
+        }
+        QueryMetricsContext.exitEndpoint();
+    }
+
+    /**
+     * 경로 변수가 섞이지 않도록 매핑 패턴 (/members/{id}) 을 사용
+     */
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
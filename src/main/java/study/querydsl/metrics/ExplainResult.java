@@ -0,0 +1,22 @@
+package study.querydsl.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * EXPLAIN 결과 분석
+ * => fullScans : 인덱스 없이 전체를 읽은 테이블
+ * => suggestions : 전체 스캔 테이블의 조건 컬럼에 대한 @Index 제안
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ExplainResult {
+
+    private final String plan;
+    private final List<String> fullScans;
+    private final List<String> suggestions;
+}
@@ -0,0 +1,84 @@
+package study.querydsl.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 지연 시간 히스토그램 (lock-free)
+ * => 버킷 i 의 상한 = 2^(i/4) 마이크로초 , 버킷 간격 약 19% 이므로 백분위 값도 그 정도 오차
+ * => 1us ~ 2^32us (약 71분) , 그 이상은 마지막 버킷
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 32 * SUB_BUCKETS + 1;
+    private static final double LOG_2 = Math.log(2);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value / 1000));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : getTotalMillis() / n;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * 백분위 값 (p = 0.5 , 0.99 ...)
+     * => 해당 버킷의 상한을 반환하되 최대값보다 크지 않게 함
+     */
+    public double percentileMillis(double p) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundMicros(i) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    static int bucketOf(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log(micros) / LOG_2 * SUB_BUCKETS);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    static double upperBoundMicros(int bucket) {
+        return Math.pow(2, (double) bucket / SUB_BUCKETS);
+    }
+}
@@ -0,0 +1,30 @@
+package study.querydsl.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 메서드 실행 중 JDBC statement 수 제한 (N+1 감지)
+ * => 스프링 빈 (컨트롤러 / 서비스) 메서드는 QueryBudgetAspect 가 적용
+ * => 테스트는 @ExtendWith(QueryBudgetExtension.class) 를 붙인 클래스의 테스트 메서드 / 클래스에 사용
+ * => 같은 스레드에서 실행된 statement 만 셈 (dbExecutor 등 다른 스레드의 쿼리는 제외)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface MaxQueries {
+
+    int value();
+
+    Action action() default Action.FAIL;
+
+    enum Action {
+        /* QueryBudgetExceededException */
+        FAIL,
+        /* 경고 로그만 남김 */
+        LOG
+    }
+}
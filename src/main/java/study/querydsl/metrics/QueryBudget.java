@@ -0,0 +1,97 @@
+package study.querydsl.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 스레드별 statement 예산
+ * => open 으로 시작하고 close 로 끝내면서 초과 여부 확인 (중첩 가능 , 안쪽 statement 는 바깥 예산에도 합산)
+ * => SQL 별 실행 횟수를 모아서 초과 시 반복된 SQL 을 메시지에 포함
+ */
+public final class QueryBudget {
+
+    private static final ThreadLocal<QueryBudget> CURRENT = new ThreadLocal<>();
+    private static final SqlNormalizer NORMALIZER = new SqlNormalizer();
+
+    private final String name;
+    private final int max;
+    private final QueryBudget parent;
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+    private int count;
+    private boolean closed;
+
+    private QueryBudget(String name, int max, QueryBudget parent) {
+        this.name = name;
+        this.max = max;
+        this.parent = parent;
+    }
+
+    public static QueryBudget open(String name, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max 는 0 이상이어야 함 : " + max);
+        }
+        QueryBudget budget = new QueryBudget(name, max, CURRENT.get());
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    /**
+     * 현재 스레드의 모든 열린 예산에 statement 1개 합산
+     */
+    static void record(String sql) {
+        QueryBudget current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        String normalized = NORMALIZER.normalize(sql);
+        for (QueryBudget budget = current; budget != null; budget = budget.parent) {
+            budget.count++;
+            budget.executions.merge(normalized, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * 예산을 닫고 이전 예산으로 되돌림
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    public boolean isExceeded() {
+        return count > max;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * 초과 내용 ("5 > 2") + 실행 횟수가 많은 SQL 순서
+     */
+    public String describe() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(executions.entrySet());
+        entries.sort((a, b) -> b.getValue() - a.getValue());
+
+        StringBuilder message = new StringBuilder()
+                .append("statement 예산 초과 [").append(name).append("] : ")
+                .append(count).append(" > ").append(max);
+        for (Map.Entry<String, Integer> entry : entries) {
+            message.append("\n  ").append(entry.getValue()).append("x ").append(entry.getKey());
+        }
+        return message.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package study.querydsl.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * @MaxQueries 가 붙은 스프링 빈 메서드의 statement 수 확인
+ * => 메서드가 예외로 끝나면 원래 예외를 그대로 던짐
+ */
+@Slf4j
+@Aspect
+@Component
+public class QueryBudgetAspect {
+
+    @Around("@annotation(maxQueries)")
+    public Object check(ProceedingJoinPoint joinPoint, MaxQueries maxQueries) throws Throwable {
+        String name = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        QueryBudget budget = QueryBudget.open(name, maxQueries.value());
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            budget.close();
+        }
+
+        if (budget.isExceeded()) {
+            if (maxQueries.action() == MaxQueries.Action.FAIL) {
+                throw new QueryBudgetExceededException(budget.describe());
+            }
+            log.warn(budget.describe());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.metrics;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy JDBC 이벤트 => 현재 스레드의 QueryBudget
+ */
+@Component
+public class QueryBudgetListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        QueryBudget.record(statementInformation.getSql());
+    }
+}
@@ -0,0 +1,120 @@
+package study.querydsl.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * SQL / 리포지토리 메서드 / HTTP 엔드포인트별 지연 시간 , statement 수 , 반환 행 수
+ * => 키가 MAX_KEYS 를 넘으면 나머지는 OTHER 로 합산 (동적 SQL 로 키가 무한히 늘어나는 것 방지)
+ */
+@Component
+public class QueryMetrics {
+
+    public static final String SQL = "sql";
+    public static final String METHOD = "method";
+    public static final String ENDPOINT = "endpoint";
+
+    static final String OTHER = "(other)";
+    private static final int MAX_KEYS = 1000;
+
+    private final SqlNormalizer normalizer = new SqlNormalizer();
+    private final ConcurrentMap<String, QueryStats> sqlStats = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, QueryStats> methodStats = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, QueryStats> endpointStats = new ConcurrentHashMap<>();
+
+    /**
+     * statement 1번 실행 => SQL 통계 + 현재 메서드 / 엔드포인트의 statement 수
+     */
+    public void recordStatement(String sql, long nanos, boolean error) {
+        QueryStats stats = stats(sqlStats, normalizer.normalize(sql));
+        stats.record(nanos, error);
+        stats.addStatement();
+        forContext(QueryStats::addStatement);
+    }
+
+    public void recordRows(String sql, long rows) {
+        stats(sqlStats, normalizer.normalize(sql)).addRows(rows);
+        forContext(stats -> stats.addRows(rows));
+    }
+
+    public void recordMethod(String method, long nanos, boolean error) {
+        stats(methodStats, method).record(nanos, error);
+    }
+
+    public void recordEndpoint(String endpoint, long nanos, boolean error) {
+        stats(endpointStats, endpoint).record(nanos, error);
+    }
+
+    /**
+     * 차원별로 전체 소요 시간이 큰 순서대로 limit 개
+     */
+    public Map<String, List<QueryStatsSnapshot>> snapshot(int limit) {
+        Map<String, List<QueryStatsSnapshot>> result = new LinkedHashMap<>();
+        result.put(SQL, snapshot(sqlStats, limit));
+        result.put(METHOD, snapshot(methodStats, limit));
+        result.put(ENDPOINT, snapshot(endpointStats, limit));
+        return result;
+    }
+
+    public List<QueryStatsSnapshot> snapshot(String dimension, int limit) {
+        return snapshot(statsOf(dimension), limit);
+    }
+
+    public void reset() {
+        sqlStats.clear();
+        methodStats.clear();
+        endpointStats.clear();
+    }
+
+    private ConcurrentMap<String, QueryStats> statsOf(String dimension) {
+        if (SQL.equals(dimension)) {
+            return sqlStats;
+        }
+        if (METHOD.equals(dimension)) {
+            return methodStats;
+        }
+        if (ENDPOINT.equals(dimension)) {
+            return endpointStats;
+        }
+        throw new IllegalArgumentException("지원하지 않는 차원 : " + dimension);
+    }
+
+    private void forContext(Consumer<QueryStats> action) {
+        String method = QueryMetricsContext.currentMethod();
+        if (method != null) {
+            action.accept(stats(methodStats, method));
+        }
+        String endpoint = QueryMetricsContext.currentEndpoint();
+        if (endpoint != null) {
+            action.accept(stats(endpointStats, endpoint));
+        }
+    }
+
+    private static QueryStats stats(ConcurrentMap<String, QueryStats> map, String key) {
+        QueryStats stats = map.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (map.size() >= MAX_KEYS) {
+            return map.computeIfAbsent(OTHER, k -> new QueryStats());
+        }
+        return map.computeIfAbsent(key, k -> new QueryStats());
+    }
+
+    private static List<QueryStatsSnapshot> snapshot(Map<String, QueryStats> map, int limit) {
+        List<QueryStatsSnapshot> snapshots = new ArrayList<>(map.size());
+        for (Map.Entry<String, QueryStats> entry : map.entrySet()) {
+            snapshots.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        snapshots.sort(Comparator.comparingDouble(QueryStatsSnapshot::getTotalMillis).reversed());
+        return snapshots.size() > limit ? new ArrayList<>(snapshots.subList(0, limit)) : snapshots;
+    }
+}
@@ -0,0 +1,72 @@
+package study.querydsl.metrics;
+
+/**
+ * 현재 스레드에서 실행 중인 리포지토리 메서드 / HTTP 엔드포인트
+ * => JDBC 리스너가 statement 를 어느 메서드 / 엔드포인트에 합산할지 결정할 때 사용
+ * => 다른 스레드로 넘기는 작업은 wrap 으로 감싸야 함 (dbExecutor 의 TaskDecorator)
+ */
+public final class QueryMetricsContext {
+
+    private static final ThreadLocal<String> METHOD = new ThreadLocal<>();
+    private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+
+    private QueryMetricsContext() {
+    }
+
+    public static String currentMethod() {
+        return METHOD.get();
+    }
+
+    public static String currentEndpoint() {
+        return ENDPOINT.get();
+    }
+
+    /**
+     * @return 이전 값 (끝나면 restoreMethod 로 되돌림)
+     */
+    static String enterMethod(String method) {
+        String previous = METHOD.get();
+        METHOD.set(method);
+        return previous;
+    }
+
+    static void restoreMethod(String previous) {
+        set(METHOD, previous);
+    }
+
+    static void enterEndpoint(String endpoint) {
+        ENDPOINT.set(endpoint);
+    }
+
+    static void exitEndpoint() {
+        ENDPOINT.remove();
+    }
+
+    public static Runnable wrap(Runnable task) {
+        String method = METHOD.get();
+        String endpoint = ENDPOINT.get();
+        if (method == null && endpoint == null) {
+            return task;
+        }
+        return () -> {
+            String previousMethod = METHOD.get();
+            String previousEndpoint = ENDPOINT.get();
+            METHOD.set(method);
+            ENDPOINT.set(endpoint);
+            try {
+                task.run();
+            } finally {
+                set(METHOD, previousMethod);
+                set(ENDPOINT, previousEndpoint);
+            }
+        };
+    }
+
+    private static void set(ThreadLocal<String> holder, String value) {
+        if (value == null) {
+            holder.remove();
+        } else {
+            holder.set(value);
+        }
+    }
+}
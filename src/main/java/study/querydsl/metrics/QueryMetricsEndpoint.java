@@ -0,0 +1,43 @@
+package study.querydsl.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /actuator/querymetrics , GET /actuator/querymetrics/{sql|method|endpoint} , DELETE 로 초기화
+ * => limit 기본 50 (전체 소요 시간 순)
+ */
+@Component
+@Endpoint(id = "querymetrics")
+public class QueryMetricsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final QueryMetrics queryMetrics;
+
+    public QueryMetricsEndpoint(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, List<QueryStatsSnapshot>> metrics(@Nullable Integer limit) {
+        return queryMetrics.snapshot(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @ReadOperation
+    public List<QueryStatsSnapshot> dimension(@Selector String dimension, @Nullable Integer limit) {
+        return queryMetrics.snapshot(dimension, limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryMetrics.reset();
+    }
+}
@@ -0,0 +1,36 @@
+package study.querydsl.metrics;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy JDBC 이벤트 => QueryMetrics
+ * => JdbcEventListener 빈은 p6spy-spring-boot-starter 가 자동으로 등록
+ * => 지연 시간은 execute 호출 시간 (결과를 next 로 읽는 시간은 제외)
+ */
+@Component
+public class QueryMetricsListener extends SimpleJdbcEventListener {
+
+    private final QueryMetrics queryMetrics;
+
+    public QueryMetricsListener(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        queryMetrics.recordStatement(statementInformation.getSql(), timeElapsedNanos, e != null);
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos,
+                                     boolean hasNext, SQLException e) {
+        if (hasNext) {
+            queryMetrics.recordRows(resultSetInformation.getStatementInformation().getSql(), 1);
+        }
+    }
+}
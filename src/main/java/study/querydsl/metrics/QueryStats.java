@@ -0,0 +1,43 @@
+package study.querydsl.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 키 (SQL / 리포지토리 메서드 / HTTP 엔드포인트) 하나의 누적 통계
+ * => SQL 은 실행 1번 = statement 1개 , 메서드 / 엔드포인트는 호출 안에서 실행된 statement 수를 따로 셈
+ */
+class QueryStats {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void record(long nanos, boolean error) {
+        latency.record(nanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    void addStatement() {
+        statements.increment();
+    }
+
+    void addRows(long count) {
+        rows.add(count);
+    }
+
+    QueryStatsSnapshot snapshot(String key) {
+        return new QueryStatsSnapshot(key,
+                latency.getCount(),
+                errors.sum(),
+                statements.sum(),
+                rows.sum(),
+                latency.percentileMillis(0.5),
+                latency.percentileMillis(0.99),
+                latency.getMaxMillis(),
+                latency.getMeanMillis(),
+                latency.getTotalMillis());
+    }
+}
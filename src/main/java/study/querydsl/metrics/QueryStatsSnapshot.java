@@ -0,0 +1,22 @@
+package study.querydsl.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class QueryStatsSnapshot {
+
+    private final String key;
+    private final long count;
+    private final long errors;
+    private final long statements;
+    private final long rows;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final double meanMillis;
+    private final double totalMillis;
+}
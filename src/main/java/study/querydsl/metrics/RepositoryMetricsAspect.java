@@ -0,0 +1,39 @@
+package study.querydsl.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Repository 메서드 호출 시간 + 호출 중 실행된 statement 를 메서드별로 집계
+ * => 리포지토리가 다른 리포지토리를 호출하면 statement 는 가장 안쪽 메서드에 합산
+ * => Stream 을 반환하는 메서드는 호출이 끝난 뒤 읽히는 행이 호출한 쪽에 합산됨
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final QueryMetrics queryMetrics;
+
+    public RepositoryMetricsAspect(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Around("@within(org.springframework.stereotype.Repository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        String previous = QueryMetricsContext.enterMethod(method);
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            Object result = joinPoint.proceed();
+            error = false;
+            return result;
+        } finally {
+            queryMetrics.recordMethod(method, System.nanoTime() - start, error);
+            QueryMetricsContext.restoreMethod(previous);
+        }
+    }
+}
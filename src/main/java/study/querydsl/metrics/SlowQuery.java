@@ -0,0 +1,60 @@
+package study.querydsl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 정규화된 SQL 하나의 느린 실행 기록 + 마지막 EXPLAIN 결과
+ */
+public class SlowQuery {
+
+    private final String sql;
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLong lastExplainNanos = new AtomicLong(Long.MIN_VALUE);
+    private volatile String lastSqlWithValues;
+    private volatile ExplainResult explain;
+
+    SlowQuery(String sql) {
+        this.sql = sql;
+    }
+
+    void record(long nanos, String sqlWithValues) {
+        count.increment();
+        maxNanos.accumulate(nanos);
+        lastSqlWithValues = sqlWithValues;
+    }
+
+    /**
+     * 마지막 EXPLAIN 후 interval 이 지났으면 true (한 스레드만)
+     */
+    boolean claimExplain(long now, long intervalNanos) {
+        long last = lastExplainNanos.get();
+        return (last == Long.MIN_VALUE || now - last >= intervalNanos) && lastExplainNanos.compareAndSet(last, now);
+    }
+
+    void explained(ExplainResult explain) {
+        this.explain = explain;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    public String getLastSqlWithValues() {
+        return lastSqlWithValues;
+    }
+
+    public ExplainResult getExplain() {
+        return explain;
+    }
+}
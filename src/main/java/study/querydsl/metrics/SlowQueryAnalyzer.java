@@ -0,0 +1,200 @@
+package study.querydsl.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 느린 SELECT 를 모아서 H2 EXPLAIN 으로 실행 계획을 확인
+ * => 같은 SQL (정규화 기준) 은 sampleInterval 에 한 번만 EXPLAIN , 실행은 별도 스레드 하나 (큐가 가득 차면 버림)
+ * => 계획에 "테이블.tableScan" 이 있으면 전체 스캔 , 그 테이블의 조건 컬럼으로 @Index 를 제안
+ * => H2 EXPLAIN 형식 기준의 휴리스틱 (앞이 % 인 LIKE 처럼 인덱스를 타지 못하는 조건도 제안될 수 있음)
+ */
+@Slf4j
+@Component
+public class SlowQueryAnalyzer {
+
+    private static final int MAX_QUERIES = 500;
+
+    // 예) FROM PUBLIC.MEMBER MEMBER0_ /* PUBLIC.MEMBER.tableScan */
+    private static final Pattern TABLE_SCAN = Pattern.compile(
+            "PUBLIC\\.(\\w+)(?:\\s+(\\w+))?\\s*/\\*\\s*PUBLIC\\.\\w+\\.tableScan\\s*\\*/", Pattern.CASE_INSENSITIVE);
+    private static final String COMPARISON = "(?:=|<>|<=|>=|<|>|\\bLIKE\\b|\\bBETWEEN\\b|\\bIN\\b|\\bIS\\b)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory emf;
+    private final long sampleIntervalNanos;
+    private final SqlNormalizer normalizer = new SqlNormalizer();
+    private final ConcurrentMap<String, SlowQuery> queries = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryAnalyzer(JdbcTemplate jdbcTemplate, EntityManagerFactory emf,
+                             @Value("${slow-query.sample-interval-ms:60000}") long sampleIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emf = emf;
+        this.sampleIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sampleIntervalMillis);
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * 임계값을 넘은 statement 기록 (p6spy 리스너 스레드에서 호출 , EXPLAIN 은 비동기)
+     */
+    void sample(String sql, String sqlWithValues, long nanos) {
+        if (!isSelect(sql)) {
+            return;
+        }
+        String normalized = normalizer.normalize(sql);
+        SlowQuery query = queries.get(normalized);
+        if (query == null) {
+            if (queries.size() >= MAX_QUERIES) {
+                return;
+            }
+            query = queries.computeIfAbsent(normalized, SlowQuery::new);
+        }
+        query.record(nanos, sqlWithValues);
+
+        if (query.claimExplain(System.nanoTime(), sampleIntervalNanos)) {
+            SlowQuery target = query;
+            explainExecutor.execute(() -> {
+                try {
+                    target.explained(analyze(sqlWithValues));
+                } catch (DataAccessException e) {
+                    log.debug("EXPLAIN 실패 : {}", sqlWithValues, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * 느린 순서대로
+     */
+    public List<SlowQuery> getSlowQueries() {
+        return queries.values().stream()
+                .sorted(Comparator.comparingDouble(SlowQuery::getMaxMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        queries.clear();
+    }
+
+    /**
+     * 값이 채워진 SELECT 의 실행 계획 분석 (동기)
+     */
+    public ExplainResult analyze(String sqlWithValues) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sqlWithValues, String.class));
+        String unquoted = plan.replace("\"", "");
+
+        List<String> fullScans = new ArrayList<>();
+        Set<String> suggestions = new LinkedHashSet<>();
+        Matcher scan = TABLE_SCAN.matcher(unquoted);
+        while (scan.find()) {
+            String table = scan.group(1).toUpperCase(Locale.ROOT);
+            String alias = scan.group(2) != null && !isKeyword(scan.group(2)) ? scan.group(2) : table;
+            fullScans.add(table);
+            for (String column : conditionColumns(unquoted, alias)) {
+                suggestions.add(suggest(table, column));
+            }
+        }
+        return new ExplainResult(plan, fullScans, new ArrayList<>(suggestions));
+    }
+
+    /**
+     * alias.컬럼 비교 (왼쪽 / 오른쪽 모두)
+     */
+    private static Set<String> conditionColumns(String plan, String alias) {
+        String column = Pattern.quote(alias) + "\\.(\\w+)";
+        Pattern left = Pattern.compile("\\b" + column + "\\s*" + COMPARISON, Pattern.CASE_INSENSITIVE);
+        Pattern right = Pattern.compile(COMPARISON + "\\s*\\b" + column, Pattern.CASE_INSENSITIVE);
+
+        String conditions = conditionsOf(plan);
+        Set<String> columns = new LinkedHashSet<>();
+        for (Pattern pattern : new Pattern[]{left, right}) {
+            Matcher matcher = pattern.matcher(conditions);
+            while (matcher.find()) {
+                columns.add(matcher.group(1).toUpperCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * select 목록은 제외하고 FROM 이후만 봄
+     */
+    private static String conditionsOf(String plan) {
+        int from = plan.toUpperCase(Locale.ROOT).indexOf(" FROM ");
+        return from < 0 ? plan : plan.substring(from);
+    }
+
+    /**
+     * 테이블 / 컬럼을 엔티티 / 필드로 바꿔서 제안 (매핑이 없으면 테이블 기준)
+     */
+    private String suggest(String table, String column) {
+        String indexName = "idx_" + table.toLowerCase(Locale.ROOT) + "_" + column.toLowerCase(Locale.ROOT);
+        for (EntityPersister persister : emf.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersisters().values()) {
+            if (persister instanceof AbstractEntityPersister
+                    && ((AbstractEntityPersister) persister).getTableName().equalsIgnoreCase(table)) {
+                return persister.getMappedClass().getSimpleName() + "." + propertyOf((AbstractEntityPersister) persister, column)
+                        + " => @Table(indexes = @Index(name = \"" + indexName + "\", columnList = \""
+                        + column.toLowerCase(Locale.ROOT) + "\"))";
+            }
+        }
+        return table + "." + column + " => create index " + indexName + " on " + table + " (" + column + ")";
+    }
+
+    private static String propertyOf(AbstractEntityPersister persister, String column) {
+        String[] properties = persister.getPropertyNames();
+        for (int i = 0; i < properties.length; i++) {
+            for (String mapped : persister.getPropertyColumnNames(i)) {
+                if (mapped.equalsIgnoreCase(column)) {
+                    return properties[i];
+                }
+            }
+        }
+        return column.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql != null && sql.trim().regionMatches(true, 0, "select", 0, 6);
+    }
+
+    private static boolean isKeyword(String word) {
+        String upper = word.toUpperCase(Locale.ROOT);
+        return upper.equals("WHERE") || upper.equals("INNER") || upper.equals("LEFT") || upper.equals("ON")
+                || upper.equals("ORDER") || upper.equals("GROUP");
+    }
+}
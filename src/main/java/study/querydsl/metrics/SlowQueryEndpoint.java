@@ -0,0 +1,32 @@
+package study.querydsl.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/slowqueries : 느린 SELECT + 실행 계획 + 인덱스 제안 , DELETE 로 초기화
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryAnalyzer analyzer;
+
+    public SlowQueryEndpoint(SlowQueryAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return analyzer.getSlowQueries();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        analyzer.reset();
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.metrics;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * slow-query.threshold-ms 보다 오래 걸린 statement 를 SlowQueryAnalyzer 로 넘김
+ * => SlowQueryAnalyzer 는 JdbcTemplate (DataSource) 을 쓰므로 처음 느린 statement 가 나올 때 꺼냄
+ *    생성자에서 바로 받으면 p6spy 가 DataSource 를 감싸는 시점에 리스너를 만들 수 없어서 (순환 참조) 감싸기가 통째로 빠짐
+ */
+@Component
+public class SlowQueryListener extends SimpleJdbcEventListener {
+
+    private final ObjectProvider<SlowQueryAnalyzer> analyzer;
+    private final long thresholdNanos;
+
+    public SlowQueryListener(ObjectProvider<SlowQueryAnalyzer> analyzer,
+                             @Value("${slow-query.threshold-ms:100}") long thresholdMillis) {
+        this.analyzer = analyzer;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (e == null && timeElapsedNanos >= thresholdNanos) {
+            analyzer.getObject().sample(statementInformation.getSql(), statementInformation.getSqlWithValues(), timeElapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package study.querydsl.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 을 통계 키로 쓸 수 있게 정규화
+ * => 문자열 / 숫자 리터럴은 ? , IN (?, ?, ...) 은 IN (?) , 공백은 하나로
+ * => PreparedStatement 는 같은 SQL 문자열이 반복되므로 결과를 캐시 (최대 MAX_CACHED 개)
+ */
+final class SqlNormalizer {
+
+    private static final int MAX_CACHED = 10_000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = cache.get(sql);
+        if (normalized != null) {
+            return normalized;
+        }
+        normalized = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        if (cache.size() < MAX_CACHED) {
+            cache.put(sql, normalized);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.replication;
+
+import java.util.function.Supplier;
+
+/**
+ * 복제 지연을 허용하지 않는 읽기는 readOnly 트랜잭션이어도 primary 로
+ * => 메모리 읽기 모델 (EntityCounts , TeamStatisticsView) 의 보정 / 재계산처럼 커밋된 최신 상태와 비교해야 하는 조회
+ *    뒤처진 replica 에서 세면 이미 반영한 커밋을 지워 버림
+ * => 범위 안에서 첫 statement 로 커넥션을 가져와야 적용됨 (LazyConnectionDataSourceProxy) , 중첩 가능
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Integer> DEPTH = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        Integer previous = DEPTH.get();
+        DEPTH.set(previous != null ? previous + 1 : 1);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                DEPTH.set(previous);
+            } else {
+                DEPTH.remove();
+            }
+        }
+    }
+
+    public static boolean isActive() {
+        return DEPTH.get() != null;
+    }
+}
@@ -0,0 +1,64 @@
+package study.querydsl.replication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쓰기 트랜잭션 이후 같은 요청 (스레드) 의 읽기는 primary 로 (read-your-writes)
+ * => replica 는 최대 maxLagMs 만큼 뒤처질 수 있으므로 그 시간 동안만 primary 고정
+ * => 요청이 끝나면 ReadYourWritesInterceptor 가 해제 , 비동기 조회 스레드에는 wrap 으로 전달
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> PINNED_UNTIL = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void pin(long millis) {
+        PINNED_UNTIL.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public static boolean isPinned() {
+        Long until = PINNED_UNTIL.get();
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            PINNED_UNTIL.remove();
+            return false;
+        }
+        return true;
+    }
+
+    public static void clear() {
+        PINNED_UNTIL.remove();
+    }
+
+    static Long current() {
+        return PINNED_UNTIL.get();
+    }
+
+    static void restore(Long until) {
+        if (until != null) {
+            PINNED_UNTIL.set(until);
+        } else {
+            PINNED_UNTIL.remove();
+        }
+    }
+
+    /**
+     * 제출한 스레드의 고정 상태를 작업 스레드에서도 사용
+     */
+    public static Runnable wrap(Runnable task) {
+        Long until = PINNED_UNTIL.get();
+        return () -> {
+            Long previous = PINNED_UNTIL.get();
+            restore(until);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package study.querydsl.replication;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * primary 고정 상태의 범위를 HTTP 요청으로 제한
+ * => 비동기 요청은 재디스패치 스레드가 달라지므로 요청 속성에 보관했다가 복원
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PINNED_UNTIL = ReadYourWritesInterceptor.class.getName() + ".pinnedUntil";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWrites.restore((Long) request.getAttribute(PINNED_UNTIL));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(PINNED_UNTIL, ReadYourWrites.current());
+        ReadYourWrites.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadYourWrites.clear();
+    }
+}
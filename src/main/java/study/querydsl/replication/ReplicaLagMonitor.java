@@ -0,0 +1,140 @@
+package study.querydsl.replication;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * replica 지연 측정 (heartbeat 테이블)
+ * => probe 마다 primary 에 현재 시각 (beat) 을 기록
+ * => 지연 = 지금까지 기록한 beat 중 replica 에 아직 없는 가장 오래된 beat 의 나이
+ *    가장 최근 beat 까지 복제됐으면 0 (방금 기록한 beat 를 바로 읽으면 비동기 replica 는 항상 한 주기 뒤처져 보임)
+ * => 지연이 maxLagMs 이하인 replica 만 읽기 대상 , 조회 실패 (다운 , 테이블 없음) 도 제외
+ * => 모두 제외되면 nextReplica 가 null => primary 로 읽음
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    public static final long UNAVAILABLE = -1;
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final long maxLagMillis;
+
+    /* 기록한 beat (오래된 순) , maxLagMs 보다 오래된 것은 가장 최근 하나만 남김 */
+    private final Deque<Long> beats = new ArrayDeque<>();
+
+    private volatile Map<String, Long> lagMillis = Collections.emptyMap();
+    private volatile List<String> available = Collections.emptyList();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaLagMonitor(ReplicationDataSources dataSources, long maxLagMillis) {
+        this.primary = new JdbcTemplate(dataSources.getPrimary());
+        dataSources.getReplicas().forEach((name, dataSource) -> replicas.put(name, new JdbcTemplate(dataSource)));
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        primary.execute("create table if not exists replication_heartbeat (id int primary key, beat_time bigint not null)");
+        probe();
+    }
+
+    /**
+     * 이전 probe 까지 기록한 beat 로 지연을 잰 뒤 새 beat 기록
+     */
+    @Scheduled(fixedDelayString = "${replication.lag-probe-interval-ms:250}")
+    public synchronized void probe() {
+        long now = System.currentTimeMillis();
+
+        Map<String, Long> lags = new LinkedHashMap<>();
+        List<String> fresh = new ArrayList<>();
+        for (Map.Entry<String, JdbcTemplate> replica : replicas.entrySet()) {
+            long lag = lagOf(replica.getValue(), now);
+            lags.put(replica.getKey(), lag);
+            if (lag != UNAVAILABLE && lag <= maxLagMillis) {
+                fresh.add(replica.getKey());
+            }
+        }
+        if (fresh.size() != available.size()) {
+            log.info("읽기 가능한 replica : {} (지연 ms {})", fresh, lags);
+        }
+        lagMillis = Collections.unmodifiableMap(lags);
+        available = Collections.unmodifiableList(fresh);
+
+        if (primary.update("update replication_heartbeat set beat_time = ? where id = 1", now) == 0) {
+            primary.update("insert into replication_heartbeat (id, beat_time) values (1, ?)", now);
+        }
+        beats.addLast(now);
+        // maxLagMs 보다 오래된 beat 는 가장 최근 하나만 있으면 됨 (그보다 뒤처진 replica 는 어차피 제외)
+        long cutoff = now - maxLagMillis;
+        while (beats.size() > 1) {
+            Iterator<Long> oldest = beats.iterator();
+            oldest.next();
+            if (oldest.next() > cutoff) {
+                break;
+            }
+            beats.removeFirst();
+        }
+    }
+
+    /**
+     * 읽기 가능한 replica 를 돌아가면서 반환 , 없으면 null
+     */
+    public String nextReplica() {
+        List<String> candidates = available;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * replica 이름 => 마지막으로 측정한 지연 (ms) , 측정 실패는 UNAVAILABLE
+     */
+    public Map<String, Long> getLagMillis() {
+        return lagMillis;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    /**
+     * replica 에 있는 beat 이후 기록된 가장 오래된 beat 의 나이
+     * => 남아 있는 beat 보다 오래된 값이면 (버린 beat 이후 복제가 멈춤) replica beat 자체의 나이
+     */
+    private long lagOf(JdbcTemplate replica, long now) {
+        List<Long> replicated;
+        try {
+            replicated = replica.queryForList("select beat_time from replication_heartbeat where id = 1", Long.class);
+        } catch (DataAccessException e) {
+            return UNAVAILABLE;
+        }
+        if (replicated.isEmpty()) {
+            return UNAVAILABLE;
+        }
+        long beat = replicated.get(0);
+        if (beats.isEmpty() || beat < beats.peekFirst()) {
+            return Math.max(0, now - beat);
+        }
+        for (Long written : beats) {
+            if (written > beat) {
+                return Math.max(0, now - written);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,43 @@
+package study.querydsl.replication;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * primary + replica 커넥션 풀 (라우팅 대상)
+ * => DataSource 빈으로 등록하면 p6spy 가 라우팅 DataSource 와 함께 이중으로 감싸므로 빈 안에 보관
+ * => 컨텍스트 종료 시 close (추론된 destroy 메서드) 로 모든 풀을 닫음
+ */
+public class ReplicationDataSources implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+
+    public ReplicationDataSources(HikariDataSource primary, Map<String, HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(replicas);
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * 이름 => replica (설정 순서)
+     */
+    public Map<String, HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        for (HikariDataSource replica : replicas.values()) {
+            replica.close();
+        }
+        primary.close();
+    }
+}
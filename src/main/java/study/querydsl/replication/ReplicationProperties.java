@@ -0,0 +1,37 @@
+package study.querydsl.replication;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * replication.* 설정 (primary 는 spring.datasource 그대로 사용)
+ */
+@Getter
+@Setter
+@ConfigurationProperties("replication")
+public class ReplicationProperties {
+
+    private boolean enabled;
+
+    /* 이보다 뒤처진 replica 는 읽기에서 제외 , 쓰기 후 primary 고정 시간 */
+    private long maxLagMs = 1000;
+
+    /* heartbeat 기록 / replica 지연 측정 간격 (지연 측정 단위 , maxLagMs 보다 충분히 작게) */
+    private long lagProbeIntervalMs = 250;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,56 @@
+package study.querydsl.replication;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 읽기 전용 트랜잭션 => 지연이 허용 범위인 replica , 그 외 => primary
+ * => 트랜잭션 시작 시점에는 readOnly 여부가 아직 설정되지 않으므로 LazyConnectionDataSourceProxy 로 감싸서
+ *    첫 statement 때 커넥션을 가져오도록 해야 함 (ReplicationDataSourceConfig)
+ * => 쓰기 트랜잭션이 커밋되면 그때부터 maxLagMs 동안 읽기는 primary (ReadYourWrites)
+ *    커넥션을 가져갈 때 고정하면 maxLagMs 보다 오래 걸린 트랜잭션은 커밋 시점에 이미 풀려 있음
+ * => PrimaryReads 범위 안의 읽기 전용 트랜잭션도 primary
+ * => 트랜잭션 밖 (JdbcTemplate 단독 , open-in-view 지연 로딩) 은 primary
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicationRoutingDataSource(ReplicationDataSources dataSources, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+
+        Map<Object, Object> targets = new HashMap<>(dataSources.getReplicas());
+        targets.put(ReplicationDataSources.PRIMARY, dataSources.getPrimary());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(dataSources.getPrimary());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return ReplicationDataSources.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ReadYourWrites.pin(lagMonitor.getMaxLagMillis());
+                    }
+                });
+            }
+            return ReplicationDataSources.PRIMARY;
+        }
+        if (PrimaryReads.isActive() || ReadYourWrites.isPinned()) {
+            return ReplicationDataSources.PRIMARY;
+        }
+        String replica = lagMonitor.nextReplica();
+        return replica != null ? replica : ReplicationDataSources.PRIMARY;
+    }
+}
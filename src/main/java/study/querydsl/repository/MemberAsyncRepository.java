@@ -0,0 +1,95 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.dto.TeamStatDto;
+import study.querydsl.repository.support.AsyncQueries;
+import study.querydsl.stats.TeamStatisticsView;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 회원 / 팀 조회의 비동기 버전
+ * => 쿼리는 DB 전용 executor 에서 실행되고 호출한 톰캣 스레드는 바로 반환됨 (컨트롤러에서 CompletableFuture 반환)
+ * => 트랜잭션은 작업 스레드에서 작업 단위로 새로 시작 (호출 스레드의 트랜잭션에 참여하지 않음)
+ * => 엔티티 대신 DTO 만 반환
+ */
+@Repository
+public class MemberAsyncRepository {
+
+    private final AsyncQueries asyncQueries;
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberSearchRepository memberSearchRepository;
+    private final TeamStatisticsView teamStatisticsView;
+
+    public MemberAsyncRepository(AsyncQueries asyncQueries,
+                                 MemberJpaRepository memberJpaRepository,
+                                 MemberSearchRepository memberSearchRepository,
+                                 TeamStatisticsView teamStatisticsView) {
+        this.asyncQueries = asyncQueries;
+        this.memberJpaRepository = memberJpaRepository;
+        this.memberSearchRepository = memberSearchRepository;
+        this.teamStatisticsView = teamStatisticsView;
+    }
+
+    /**
+     * 조건에 맞는 회원 DTO 목록
+     * => streamMemberDto 는 트랜잭션이 필요하므로 작업 스레드의 트랜잭션 안에서 다 읽고 닫음
+     */
+    public CompletableFuture<List<MemberDto>> findMemberDtos(Predicate condition) {
+        return asyncQueries.supply(() -> {
+            try (Stream<MemberDto> stream = memberJpaRepository.streamMemberDto(condition, 500)) {
+                return stream.collect(Collectors.toList());
+            }
+        });
+    }
+
+    public CompletableFuture<List<MemberTeamDto>> search(MemeberSearchDto condition) {
+        return asyncQueries.supply(() -> memberSearchRepository.search(condition));
+    }
+
+    /**
+     * 검색 결과 페이지 + 전체 개수를 서로 다른 커넥션에서 동시에 조회
+     */
+    public CompletableFuture<Page<MemberTeamDto>> searchPage(MemeberSearchDto condition, Pageable pageable) {
+        return asyncQueries.page(
+                () -> memberSearchRepository.search(condition, pageable),
+                () -> memberSearchRepository.count(condition),
+                pageable);
+    }
+
+    /**
+     * 팀 통계는 메모리 뷰 (TeamStatisticsView) 에서 읽으므로 DB 조회 없음
+     */
+    public List<TeamStatDto> findTeamStats() {
+        return teamStatisticsView.getAll().stream()
+                .map(TeamStatDto::from)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 회원 검색 + 팀 통계
+     * => 검색 페이지 / count 만 DB 에서 동시에 조회 , 팀 통계는 검색이 끝난 뒤 메모리 뷰에서 읽음
+     */
+    public CompletableFuture<MemberSearchResult> searchWithTeamStats(MemeberSearchDto condition, Pageable pageable) {
+        return searchPage(condition, pageable)
+                .thenApply(members -> new MemberSearchResult(members, findTeamStats()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class MemberSearchResult {
+        private final Page<MemberTeamDto> members;
+        private final List<TeamStatDto> teamStats;
+    }
+}
@@ -1,33 +1,177 @@
 package study.querydsl.repository;
 
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.support.BulkChangeEvent;
+import study.querydsl.repository.support.BulkInsertSupport;
+import study.querydsl.repository.support.CachingQueryExecutor;
+import study.querydsl.repository.support.KeysetPage;
+import study.querydsl.repository.support.KeysetProperties;
+import study.querydsl.repository.support.KeysetSort;
+import study.querydsl.repository.support.PersistenceContextAwareBulk;
+import study.querydsl.repository.support.QuerydslPaging;
+import study.querydsl.repository.support.ReadOnlyQueries;
+import study.querydsl.repository.support.StreamingSupport;
+import study.querydsl.stats.CountMode;
+import study.querydsl.stats.EntityCounts;
 
 import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
 
 @Repository // 1.컴포넌트 스캔 + 2. JPA의 예외를 Spring 에서 처리할 수 있도록 함
+@Transactional(readOnly = true) // 조회는 읽기 전용 트랜잭션 => flush 모드 MANUAL + 세션 기본 읽기 전용 (스냅샷 없음)
 public class MemberJpaRepository {
 
-    @PersistenceContext
-    private EntityManager em;
+    /* keyset 페이징에서 정렬 가능한 컬럼 */
+    private static final KeysetProperties<Member> KEYSET_PROPERTIES = new KeysetProperties<Member>()
+            .add("id", member.id, Member::getId)
+            .add("username", member.username, Member::getUsername)
+            .add("age", member.age, Member::getAge)
+            .unique("id");
+
+    /* application.yml 의 hibernate.jdbc.batch_size 와 맞춤 */
+    private static final int BULK_FLUSH_SIZE = 100;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final QuerydslPaging paging;
+    private final CachingQueryExecutor cachingQueryExecutor;
+    private final PersistenceContextAwareBulk bulk;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityCounts counts;
+
+    public MemberJpaRepository(EntityManager em, CachingQueryExecutor cachingQueryExecutor,
+                               ApplicationEventPublisher eventPublisher, EntityCounts counts) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.paging = new QuerydslPaging(em);
+        this.cachingQueryExecutor = cachingQueryExecutor;
+        this.bulk = new PersistenceContextAwareBulk(em);
+        this.eventPublisher = eventPublisher;
+        this.counts = counts;
+    }
 
+    @Transactional
     public Member save(Member member) {
         em.persist(member);
         return member;
     }
 
+    /**
+     * 대량 저장
+     * => BULK_FLUSH_SIZE 건마다 flush 해서 JDBC 배치로 insert 를 보내고 clear 로 영속성 컨텍스트를 비움
+     * => clear 이후에는 넘겨준 엔티티가 준영속 상태가 되므로 저장 후 수정하지 말 것
+     * => 팀은 미리 저장되어 있어야 함
+     */
+    @Transactional
+    public long saveAll(Iterable<Member> members) {
+        return BulkInsertSupport.persistAll(em, members, BULK_FLUSH_SIZE);
+    }
+
+    @Transactional
     public void delete(Member member) {
         em.remove(member);
     }
 
+    /**
+     * 벌크 수정
+     * => em.clear() 없이 조건에 맞는 관리 엔티티만 다시 읽어옴
+     * => 커밋 후 BulkChangeEvent 로 파생 데이터 (팀 통계) 를 다시 계산
+     * 예) bulkUpdate(member.age.lt(28), update -> update.set(member.username, "비회원"))
+     */
+    @Transactional
+    public long bulkUpdate(Predicate condition, Consumer<JPAUpdateClause> assignments) {
+        long count = bulk.update(member, condition, assignments);
+        eventPublisher.publishEvent(new BulkChangeEvent(Member.class, BulkChangeEvent.Operation.UPDATE, count));
+        return count;
+    }
+
+    /**
+     * 벌크 삭제
+     * => 조건에 맞는 관리 엔티티만 영속성 컨텍스트에서 분리
+     */
+    @Transactional
+    public long bulkDelete(Predicate condition) {
+        long count = bulk.delete(member, condition);
+        eventPublisher.publishEvent(new BulkChangeEvent(Member.class, BulkChangeEvent.Operation.DELETE, count));
+        return count;
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
 
+    /**
+     * 읽기 전용 조회
+     * => 쓰기 트랜잭션 안에서 호출해도 스냅샷을 만들지 않음 (flush 전 변경은 자동 flush 후 조회되므로 결과에 포함)
+     * => 결과 엔티티를 수정해도 반영되지 않음
+     */
+    public List<Member> findAllReadOnly(Predicate condition, OrderSpecifier<?>... orders) {
+        return ReadOnlyQueries.readOnly(queryFactory
+                        .selectFrom(member)
+                        .where(condition)
+                        .orderBy(orders))
+                .fetch();
+    }
+
+    /**
+     * 전체 회원 스트리밍 조회
+     * => forward-only 커서로 fetchSize 만큼씩 가져옴
+     * => 트랜잭션 안에서 사용하고 다 쓴 스트림은 반드시 닫아야 함 (try-with-resources)
+     * => 읽은 엔티티는 영속성 컨텍스트에 계속 쌓이므로 대용량이면 forEachMember 사용
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Member> streamAll(int fetchSize) {
+        return ReadOnlyQueries.readOnly(em.createQuery("select m from Member m order by m.id", Member.class))
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * 전체 회원을 한 건씩 처리하면서 clearEvery 건마다 영속성 컨텍스트를 비움
+     * => 야간 export 처럼 테이블 전체를 읽는 경우
+     */
+    public long forEachMember(int fetchSize, int clearEvery, Consumer<Member> action) {
+        return StreamingSupport.forEachClearing(em, () -> streamAll(fetchSize), clearEvery, action);
+    }
+
+    /**
+     * DTO 스트리밍
+     * => DTO 는 영속성 컨텍스트에 올라가지 않으므로 clear 없이도 힙 사용량이 일정함
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<MemberDto> streamMemberDto(Predicate condition, int fetchSize) {
+        return queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(condition)
+                .orderBy(member.id.asc())
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .stream();
+    }
+
     public Optional<Member> findById(Long id) {
         Member member = em.find(Member.class, id);
         return Optional.ofNullable(member);
@@ -42,4 +186,75 @@ public class MemberJpaRepository {
                 .getSingleResult();
     }
 
+    /**
+     * APPROXIMATE : 커밋된 변경까지 반영된 메모리 카운터 (select count 없음)
+     */
+    public long count(CountMode mode) {
+        return mode == CountMode.APPROXIMATE ? counts.members().orElseGet(this::count) : count();
+    }
+
+    public long countByTeam(Long teamId, CountMode mode) {
+        if (mode == CountMode.APPROXIMATE) {
+            OptionalLong approximate = counts.membersOfTeam(teamId);
+            if (approximate.isPresent()) {
+                return approximate.getAsLong();
+            }
+        }
+        Long count = queryFactory
+                .select(member.count())
+                .from(member)
+                .where(member.team.id.eq(teamId))
+                .fetchOne();
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * keyset(seek) 페이징
+     * offset 대신 이전 페이지 마지막 행의 커서로 다음 페이지를 찾음
+     * => sort 예) "age desc, username asc, id"
+     * => cursor 가 null 이면 첫 페이지
+     * => 정렬 컬럼 값이 null 인 행은 커서를 만들 수 없으므로 null 이 없는 컬럼으로 정렬해야 함
+     */
+    public KeysetPage<Member> findAllByKeyset(Predicate condition, String sort, String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 함 : " + size);
+        }
+        KeysetSort<Member> keysetSort = KeysetSort.parse(sort, KEYSET_PROPERTIES);
+
+        // 커서 값만 바뀌고 모양은 같으므로 캐시된 JPQL 을 재사용
+        JPAQuery<Member> query = queryFactory
+                .selectFrom(member)
+                .where(condition, keysetSort.after(cursor))
+                .orderBy(keysetSort.toOrderSpecifiers())
+                .limit(size + 1);
+        List<Member> result = cachingQueryExecutor.fetch(query);
+
+        return KeysetPage.of(result, size, keysetSort);
+    }
+
+    /**
+     * 팀을 함께 조회하는 페이징
+     * => count 쿼리는 fetch join / order by 가 빠진 별도 쿼리로 실행되고
+     * 첫 페이지나 마지막 페이지에서 전체 개수를 알 수 있으면 생략됨
+     */
+    public Page<Member> findPageWithTeam(Predicate condition, Pageable pageable) {
+        return paging.page(pageWithTeamQuery(condition), pageable);
+    }
+
+    /**
+     * 다음 페이지 여부만 필요한 경우 (더보기 / 무한 스크롤)
+     * => count 쿼리 없음
+     */
+    public Slice<Member> findSliceWithTeam(Predicate condition, Pageable pageable) {
+        return paging.slice(pageWithTeamQuery(condition), pageable);
+    }
+
+    private JPAQuery<Member> pageWithTeamQuery(Predicate condition) {
+        return queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team).fetchJoin()
+                .where(condition)
+                .orderBy(member.id.asc());
+    }
+
 }
@@ -0,0 +1,213 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import study.querydsl.dto.MemberSearchSort;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.dto.QMemberTeamDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * MemeberSearchDto 로 회원을 검색하는 동적 쿼리
+ * 검색 조건 중 어떤 값이 null 이 아닌지 + 정렬 조건 = "모양(shape)" 이 같으면 JPQL 도 같으므로
+ * 모양별로 JPQL 을 한 번만 만들어서 캐시하고 이후에는 파라미터만 바인딩함
+ * => 조건 조립 , JPQL 직렬화 비용이 없고 hibernate 쿼리 플랜 캐시도 항상 적중
+ */
+@Repository
+public class MemberSearchRepository {
+
+    private static final Param<String> USERNAME = new Param<>(String.class, "username");
+    private static final Param<Integer> AGE = new Param<>(Integer.class, "age");
+    private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+    private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+
+    private static final QMemberTeamDto PROJECTION =
+            new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+
+    private final EntityManager em;
+    private final ConcurrentMap<String, SearchPlan> plans = new ConcurrentHashMap<>();
+
+    public MemberSearchRepository(EntityManager em) {
+        this.em = em;
+    }
+
+    public List<MemberTeamDto> search(MemeberSearchDto condition) {
+        return search(condition, Pageable.unpaged());
+    }
+
+    public List<MemberTeamDto> search(MemeberSearchDto condition, Pageable pageable) {
+        SearchPlan plan = plans.computeIfAbsent(shapeOf(condition), shape -> compile(condition));
+
+        Query query = em.createQuery(plan.jpql);
+        JPAUtil.setConstants(query, plan.constants, paramsOf(condition));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<?> rows = query.getResultList();
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(PROJECTION.newInstance((Object[]) row));
+        }
+        return result;
+    }
+
+    /**
+     * search 와 같은 조건의 전체 개수
+     * => 정렬 조건은 count 에 영향이 없으므로 모양에서 제외
+     */
+    public long count(MemeberSearchDto condition) {
+        SearchPlan plan = plans.computeIfAbsent(countShapeOf(condition), shape -> compileCount(condition));
+
+        Query query = em.createQuery(plan.jpql);
+        JPAUtil.setConstants(query, plan.constants, paramsOf(condition));
+        return (Long) query.getSingleResult();
+    }
+
+    /**
+     * 캐시된 JPQL 개수 (모양의 개수)
+     */
+    public int cachedPlanCount() {
+        return plans.size();
+    }
+
+    /**
+     * 모양별 최초 1회만 실행
+     * => 값 대신 Param 으로 조건을 만들어서 직렬화하므로 같은 모양이면 어떤 값이든 재사용 가능
+     */
+    private SearchPlan compile(MemeberSearchDto condition) {
+        JPAQuery<MemberTeamDto> query = new JPAQuery<Void>()
+                .select(PROJECTION)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        ageEq(condition.getAge()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        teamNameEq(condition.getTeamName())
+                )
+                .orderBy(orderOf(condition.getSort()));
+
+        return serialize(query);
+    }
+
+    private SearchPlan compileCount(MemeberSearchDto condition) {
+        JPAQuery<Long> query = new JPAQuery<Void>()
+                .select(member.count())
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        ageEq(condition.getAge()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        teamNameEq(condition.getTeamName())
+                );
+
+        return serialize(query);
+    }
+
+    private SearchPlan serialize(JPAQuery<?> query) {
+        JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT, em);
+        serializer.serialize(query.getMetadata(), false, null);
+        return new SearchPlan(serializer.toString(), new ArrayList<>(serializer.getConstants()));
+    }
+
+    private static String shapeOf(MemeberSearchDto condition) {
+        StringBuilder shape = new StringBuilder(8);
+        shape.append(condition.getUsername() != null ? '1' : '0');
+        shape.append(condition.getAge() != null ? '1' : '0');
+        shape.append(condition.getAgeGoe() != null ? '1' : '0');
+        shape.append(condition.getAgeLoe() != null ? '1' : '0');
+        shape.append(condition.getTeamName() != null ? '1' : '0');
+        shape.append(':').append(condition.getSort() != null ? condition.getSort().name() : MemberSearchSort.ID.name());
+        return shape.toString();
+    }
+
+    private static String countShapeOf(MemeberSearchDto condition) {
+        String shape = shapeOf(condition);
+        return "count:" + shape.substring(0, shape.indexOf(':'));
+    }
+
+    private static Map<ParamExpression<?>, Object> paramsOf(MemeberSearchDto condition) {
+        Map<ParamExpression<?>, Object> params = new HashMap<>();
+        putIfNotNull(params, USERNAME, condition.getUsername());
+        putIfNotNull(params, AGE, condition.getAge());
+        putIfNotNull(params, AGE_GOE, condition.getAgeGoe());
+        putIfNotNull(params, AGE_LOE, condition.getAgeLoe());
+        putIfNotNull(params, TEAM_NAME, condition.getTeamName());
+        return params;
+    }
+
+    private static void putIfNotNull(Map<ParamExpression<?>, Object> params, ParamExpression<?> param, Object value) {
+        if (value != null) {
+            params.put(param, value);
+        }
+    }
+
+    private static BooleanExpression usernameEq(String username) {
+        return username != null ? member.username.eq(USERNAME) : null;
+    }
+
+    private static BooleanExpression ageEq(Integer age) {
+        return age != null ? member.age.eq(AGE) : null;
+    }
+
+    private static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(AGE_GOE) : null;
+    }
+
+    private static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(AGE_LOE) : null;
+    }
+
+    private static BooleanExpression teamNameEq(String teamName) {
+        return teamName != null ? team.name.eq(TEAM_NAME) : null;
+    }
+
+    private static OrderSpecifier<?>[] orderOf(MemberSearchSort sort) {
+        if (sort == MemberSearchSort.USERNAME) {
+            return new OrderSpecifier<?>[]{member.username.asc(), member.id.asc()};
+        }
+        if (sort == MemberSearchSort.AGE_DESC) {
+            return new OrderSpecifier<?>[]{member.age.desc(), member.id.asc()};
+        }
+        return new OrderSpecifier<?>[]{member.id.asc()};
+    }
+
+    /**
+     * 모양별로 캐시되는 JPQL 과 바인딩할 상수 (Param 자리 포함)
+     */
+    private static class SearchPlan {
+        private final String jpql;
+        private final List<Object> constants;
+
+        SearchPlan(String jpql, List<Object> constants) {
+            this.jpql = jpql;
+            this.constants = constants;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchSort;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemberTeamDtoProjection;
+import study.querydsl.dto.MemeberSearchDto;
+
+import java.util.List;
+
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * MemberSearchRepository 와 같은 검색을 querydsl-sql 로 실행 (읽기 전용)
+ * => HQL 파싱 , hibernate 결과 변환 , 영속성 컨텍스트 없이 ResultSet 에서 바로 MemberTeamDto 생성
+ * => 같은 트랜잭션에서 JPA 로 변경한 내용은 flush 된 것만 보임 (native SQL 이라 자동 flush 대상이 아님)
+ */
+@Repository
+@Transactional(readOnly = true) // SpringConnectionProvider 는 트랜잭션에 묶인 커넥션만 사용
+public class MemberSqlRepository {
+
+    /* 별칭 -> 생성자 파라미터 매핑은 여기서 한 번만 (MemberTeamDtoProjection 은 불변) , ShardedMemberRepository 와 공유 */
+    static final MemberTeamDtoProjection PROJECTION = MemberTeamDtoProjection.of(
+            member.memberId, member.username, member.age, team.teamId, team.name.as("teamName"));
+
+    private final SQLQueryFactory queryFactory;
+
+    public MemberSqlRepository(SQLQueryFactory queryFactory) {
+        this.queryFactory = queryFactory;
+    }
+
+    public List<MemberTeamDto> search(MemeberSearchDto condition) {
+        return search(condition, Pageable.unpaged());
+    }
+
+    public List<MemberTeamDto> search(MemeberSearchDto condition, Pageable pageable) {
+        SQLQuery<MemberTeamDto> query = queryFactory
+                .select(PROJECTION)
+                .from(member)
+                .leftJoin(member.teamFk, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        ageEq(condition.getAge()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        teamNameEq(condition.getTeamName())
+                )
+                .orderBy(orderOf(condition.getSort()));
+        if (pageable.isPaged()) {
+            query.offset(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return query.fetch();
+    }
+
+    public long count(MemeberSearchDto condition) {
+        Long count = queryFactory
+                .select(Wildcard.count)
+                .from(member)
+                .leftJoin(member.teamFk, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        ageEq(condition.getAge()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        teamNameEq(condition.getTeamName())
+                )
+                .fetchOne();
+        return count != null ? count : 0L;
+    }
+
+    static BooleanExpression usernameEq(String username) {
+        return username != null ? member.username.eq(username) : null;
+    }
+
+    static BooleanExpression ageEq(Integer age) {
+        return age != null ? member.age.eq(age) : null;
+    }
+
+    static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+
+    static BooleanExpression teamNameEq(String teamName) {
+        return teamName != null ? team.name.eq(teamName) : null;
+    }
+
+    static OrderSpecifier<?>[] orderOf(MemberSearchSort sort) {
+        if (sort == MemberSearchSort.USERNAME) {
+            return new OrderSpecifier<?>[]{member.username.asc(), member.memberId.asc()};
+        }
+        if (sort == MemberSearchSort.AGE_DESC) {
+            return new OrderSpecifier<?>[]{member.age.desc(), member.memberId.asc()};
+        }
+        return new OrderSpecifier<?>[]{member.memberId.asc()};
+    }
+}
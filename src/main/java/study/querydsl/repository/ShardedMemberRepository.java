@@ -0,0 +1,163 @@
+package study.querydsl.repository;
+
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.dto.MemberSearchSort;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.sharding.ShardDataSources;
+import study.querydsl.sharding.ShardRouter;
+import study.querydsl.sharding.ShardedQueryExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static study.querydsl.repository.MemberSqlRepository.PROJECTION;
+import static study.querydsl.repository.MemberSqlRepository.ageEq;
+import static study.querydsl.repository.MemberSqlRepository.ageGoe;
+import static study.querydsl.repository.MemberSqlRepository.ageLoe;
+import static study.querydsl.repository.MemberSqlRepository.orderOf;
+import static study.querydsl.repository.MemberSqlRepository.teamNameEq;
+import static study.querydsl.repository.MemberSqlRepository.usernameEq;
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * team_id 기준으로 샤딩된 member 저장 / 검색 (sharding.enabled=true 일 때 ShardingConfig 가 등록)
+ * => team : 모든 샤드에 같은 id 로 복제 (조인 , 팀 이름 조건을 샤드 안에서 처리)
+ * => member : ShardRouter 가 고른 한 샤드에만 , id 로 샤드를 알 수 있음
+ * => 검색 : 팀 이름 조건이 있으면 그 팀이 있는 샤드만 , 없으면 전체 샤드에서 병렬 조회 후 병합 정렬 + 재페이징
+ * => 쓰기는 샤드마다 자동 커밋 , 팀 복제 중 실패하면 일부 샤드에만 남을 수 있음
+ * => 회원의 팀 변경은 샤드 이동 (새 id) 이 필요해서 지원하지 않음
+ */
+public class ShardedMemberRepository {
+
+    private final ShardedQueryExecutor executor;
+    private final ShardRouter router;
+    private final List<JdbcTemplate> sequences = new ArrayList<>();
+
+    public ShardedMemberRepository(ShardedQueryExecutor executor, ShardRouter router, ShardDataSources dataSources) {
+        this.executor = executor;
+        this.router = router;
+        dataSources.getShards().forEach(dataSource -> sequences.add(new JdbcTemplate(dataSource)));
+    }
+
+    /**
+     * id 는 0 번 샤드의 team_seq 에서 발급 , 모든 샤드에 insert
+     */
+    public Long saveTeam(String name) {
+        Long teamId = nextValue(0, "team_seq");
+        for (Integer shard : executor.all()) {
+            executor.shard(shard)
+                    .insert(team)
+                    .set(team.teamId, teamId)
+                    .set(team.name, name)
+                    .execute();
+        }
+        return teamId;
+    }
+
+    /**
+     * 팀이 있는 샤드의 member_seq 로 id 발급 (샤드 번호를 id 에 포함)
+     */
+    public Long saveMember(String username, int age, Long teamId) {
+        int shard = router.shardOfTeam(teamId);
+        long memberId = router.memberId(nextValue(shard, "member_seq"), shard);
+        executor.shard(shard)
+                .insert(member)
+                .set(member.memberId, memberId)
+                .set(member.username, username)
+                .set(member.age, age)
+                .set(member.teamId, teamId)
+                .execute();
+        return memberId;
+    }
+
+    public Optional<MemberTeamDto> findById(Long memberId) {
+        return Optional.ofNullable(executor.shard(router.shardOfMember(memberId))
+                .select(PROJECTION)
+                .from(member)
+                .leftJoin(member.teamFk, team)
+                .where(member.memberId.eq(memberId))
+                .fetchOne());
+    }
+
+    public List<MemberTeamDto> search(MemeberSearchDto condition) {
+        return search(condition, Pageable.unpaged());
+    }
+
+    /**
+     * 샤드별 정렬 (orderOf) 과 병합 기준 (comparatorOf) 은 같은 순서 , 마지막은 전체에서 유일한 member_id
+     */
+    public List<MemberTeamDto> search(MemeberSearchDto condition, Pageable pageable) {
+        return executor.fetchSorted(shardsOf(condition),
+                factory -> where(factory.select(PROJECTION), condition).orderBy(orderOf(condition.getSort())),
+                comparatorOf(condition.getSort()),
+                pageable);
+    }
+
+    public long count(MemeberSearchDto condition) {
+        return executor.count(shardsOf(condition), factory -> where(factory.query(), condition));
+    }
+
+    /**
+     * 조건을 만족하는 회원이 있을 수 있는 샤드
+     * => 팀은 모든 샤드에 있으므로 팀 이름 -> 팀 id 는 0 번 샤드에서 찾음 , 팀이 없으면 빈 목록
+     */
+    List<Integer> shardsOf(MemeberSearchDto condition) {
+        if (condition.getTeamName() == null) {
+            return executor.all();
+        }
+        List<Long> teamIds = executor.shard(0)
+                .select(team.teamId)
+                .from(team)
+                .where(team.name.eq(condition.getTeamName()))
+                .fetch();
+        if (teamIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return teamIds.stream()
+                .map(router::shardOfTeam)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static <T> SQLQuery<T> where(SQLQuery<T> query, MemeberSearchDto condition) {
+        return query
+                .from(member)
+                .leftJoin(member.teamFk, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        ageEq(condition.getAge()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        teamNameEq(condition.getTeamName())
+                );
+    }
+
+    /**
+     * MemberSqlRepository.orderOf 와 같은 순서 (H2 의 오름차순 null 은 앞)
+     */
+    private static Comparator<MemberTeamDto> comparatorOf(MemberSearchSort sort) {
+        Comparator<MemberTeamDto> byId = Comparator.comparing(MemberTeamDto::getMemberId);
+        if (sort == MemberSearchSort.USERNAME) {
+            return Comparator.comparing(MemberTeamDto::getUsername, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparing(byId);
+        }
+        if (sort == MemberSearchSort.AGE_DESC) {
+            return Comparator.comparingInt(MemberTeamDto::getAge).reversed().thenComparing(byId);
+        }
+        return byId;
+    }
+
+    private Long nextValue(int shard, String sequence) {
+        return sequences.get(shard).queryForObject("select next value for " + sequence, Long.class);
+    }
+}
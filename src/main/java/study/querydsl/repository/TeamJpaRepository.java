@@ -1,24 +1,84 @@
 package study.querydsl.repository;
 
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.dto.QMemberSummaryDto;
+import study.querydsl.dto.QTeamProjection;
+import study.querydsl.dto.TeamDto;
+import study.querydsl.dto.TeamProjection;
 import study.querydsl.entity.Team;
+import study.querydsl.mapper.TeamMapper;
+import study.querydsl.repository.support.BulkChangeEvent;
+import study.querydsl.repository.support.BulkInsertSupport;
+import study.querydsl.repository.support.InMemorySnapshot;
+import study.querydsl.repository.support.QuerydslPaging;
+import study.querydsl.repository.support.ReadOnlyQueries;
+import study.querydsl.repository.support.StreamingSupport;
+import study.querydsl.stats.CountMode;
+import study.querydsl.stats.EntityCounts;
 
 import javax.persistence.EntityManager;
-import javax.persistence.PersistenceContext;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
 
 @Repository
+@Transactional(readOnly = true)
 public class TeamJpaRepository {
 
-    @PersistenceContext // jpa 엔티티 매니저 추가해주는 어노테이션
-    private EntityManager em;
+    /* application.yml 의 hibernate.jdbc.batch_size 와 맞춤 */
+    private static final int BULK_FLUSH_SIZE = 100;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final QuerydslPaging paging;
+    private final InMemorySnapshot<Team> snapshot;
+    private final EntityCounts counts;
+
+    public TeamJpaRepository(EntityManager em, EntityCounts counts) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+        this.paging = new QuerydslPaging(em);
+        this.snapshot = new InMemorySnapshot<>(em.getEntityManagerFactory(), team);
+        this.counts = counts;
+    }
 
+    @Transactional
     public Team save(Team team) {
         em.persist(team);
         return team;
     }
 
+    /**
+     * 대량 저장
+     * => BULK_FLUSH_SIZE 건마다 flush / clear
+     */
+    @Transactional
+    public long saveAll(Iterable<Team> teams) {
+        return BulkInsertSupport.persistAll(em, teams, BULK_FLUSH_SIZE);
+    }
+
+    @Transactional
     public void delete(Team team) {
         em.remove(team);
     }
@@ -28,6 +88,135 @@ public class TeamJpaRepository {
                 .getResultList();
     }
 
+    /**
+     * 읽기 전용 조회 (스냅샷 없음 , flush 전 변경도 결과에 포함)
+     */
+    public List<Team> findAllReadOnly(Predicate condition, OrderSpecifier<?>... orders) {
+        return ReadOnlyQueries.readOnly(queryFactory
+                        .selectFrom(team)
+                        .where(condition)
+                        .orderBy(orders))
+                .fetch();
+    }
+
+    /**
+     * findAllReadOnly 와 같은 조건 / 정렬을 DB 대신 메모리 스냅샷에서 평가
+     * => 팀이 커밋되면 스냅샷을 다시 읽음 , 같은 조건의 반복 조회는 메모된 결과를 반환
+     * => 반환된 팀은 준영속 공유 객체이므로 수정하지 말 것
+     * => 스냅샷에서 평가할 수 없는 조건 (team.members 등 지연 로딩) 이면 DB 에서 읽기 전용으로 조회
+     */
+    public List<Team> findAllCached(Predicate condition, OrderSpecifier<?>... orders) {
+        try {
+            return snapshot.fetch(condition, orders);
+        } catch (RuntimeException e) {
+            if (!isLazyInitialization(e)) {
+                throw e;
+            }
+            return findAllReadOnly(condition, orders);
+        }
+    }
+
+    public Optional<Team> findFirstCached(Predicate condition, OrderSpecifier<?>... orders) {
+        List<Team> result = findAllCached(condition, orders);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    /**
+     * querydsl-collections 가 평가 중 예외를 감싸서 던지므로 원인까지 확인
+     */
+    private static boolean isLazyInitialization(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LazyInitializationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 팀 + 회원 목록 페이징 (N+1 없음)
+     * 컬렉션 fetch join 에 페이징을 걸면 hibernate 가 전체를 읽어서 메모리에서 페이징하므로
+     * 1. 팀 id 만 페이징해서 조회
+     * 2. 해당 id 의 팀을 회원과 fetch join 으로 한 번에 조회
+     * => 페이지 크기와 상관없이 쿼리 2번 (+ 필요할 때만 count 1번)
+     */
+    public Page<Team> findPageWithMembers(Pageable pageable) {
+        JPAQuery<Long> idQuery = queryFactory
+                .select(team.id)
+                .from(team)
+                .orderBy(team.id.asc());
+        Page<Long> ids = paging.page(idQuery, pageable);
+
+        return new PageImpl<>(findAllWithMembers(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    /**
+     * id 목록에 해당하는 팀을 회원과 함께 조회
+     * => distinct 는 메모리에서만 중복 제거하고 SQL 로는 보내지 않음
+     */
+    public List<Team> findAllWithMembers(List<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return queryFactory
+                .selectFrom(team).distinct()
+                .leftJoin(team.members, member).fetchJoin()
+                .where(team.id.in(teamIds))
+                .orderBy(team.id.asc())
+                .setHint(QueryHints.PASS_DISTINCT_THROUGH, false)
+                .fetch();
+    }
+
+    /**
+     * 팀 + 회원 요약 DTO 를 쿼리 한 번으로 조회
+     * => 엔티티를 조회하지 않으므로 영속성 컨텍스트 / 지연 로딩과 무관 (컬렉션 초기화 쿼리 없음)
+     * => 팀 x 회원 행을 GroupBy 로 팀 id 기준으로 묶음 , 회원이 없는 팀은 빈 목록 (skipNulls)
+     * => 조인 결과를 묶는 것이므로 limit 을 걸면 안 됨 , 페이징은 findTeamDtoPage
+     */
+    public List<TeamDto> findTeamDtos(Predicate condition) {
+        List<TeamProjection> teams = queryFactory
+                .from(team)
+                .leftJoin(team.members, member)
+                .where(condition)
+                .orderBy(team.id.asc(), member.id.asc())
+                .transform(groupBy(team.id).list(new QTeamProjection(
+                        team.id, team.name, team.regTime, team.modTime,
+                        list(new QMemberSummaryDto(member.id, member.username, member.age).skipNulls()))));
+
+        return TeamMapper.INSTANCE.teamsToTeamDtos(teams);
+    }
+
+    /**
+     * 팀 id 만 페이징한 뒤 해당 팀들을 findTeamDtos 로 조회
+     */
+    public Page<TeamDto> findTeamDtoPage(Pageable pageable) {
+        JPAQuery<Long> idQuery = queryFactory
+                .select(team.id)
+                .from(team)
+                .orderBy(team.id.asc());
+        Page<Long> ids = paging.page(idQuery, pageable);
+        if (ids.getContent().isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ids.getTotalElements());
+        }
+
+        return new PageImpl<>(findTeamDtos(team.id.in(ids.getContent())), pageable, ids.getTotalElements());
+    }
+
+    /**
+     * 전체 팀 스트리밍 조회
+     * => 트랜잭션 안에서 사용하고 다 쓴 스트림은 반드시 닫아야 함
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Team> streamAll(int fetchSize) {
+        return ReadOnlyQueries.readOnly(em.createQuery("select t from Team t order by t.id", Team.class))
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    public long forEachTeam(int fetchSize, int clearEvery, Consumer<Team> action) {
+        return StreamingSupport.forEachClearing(em, () -> streamAll(fetchSize), clearEvery, action);
+    }
+
     public Optional<Team> findById(Long id) {
         Team team = em.find(Team.class, id);
         return Optional.ofNullable(team);
@@ -38,4 +227,57 @@ public class TeamJpaRepository {
                 .getSingleResult();
     }
 
+    /**
+     * APPROXIMATE : 커밋된 변경까지 반영된 메모리 카운터 (select count 없음)
+     */
+    public long count(CountMode mode) {
+        return mode == CountMode.APPROXIMATE ? counts.teams().orElseGet(this::count) : count();
+    }
+
+    /**
+     * 팀 2차 캐시 통계 (hit / miss / put)
+     * => save / delete / 변경 감지로 인한 수정은 READ_WRITE 전략이 커밋 시점에 캐시에 반영
+     * => JPQL 벌크 연산은 hibernate 가 리전 전체를 무효화
+     */
+    public CacheRegionStatistics cacheStatistics() {
+        return em.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics(Team.CACHE_REGION);
+    }
+
+    public double cacheHitRatio() {
+        CacheRegionStatistics statistics = cacheStatistics();
+        long total = statistics.getHitCount() + statistics.getMissCount();
+        return total == 0 ? 0 : (double) statistics.getHitCount() / total;
+    }
+
+    /**
+     * hibernate 를 거치지 않고 (JDBC , 네이티브 쿼리) 팀을 변경한 경우 직접 캐시에서 제거 (메모리 스냅샷 포함)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void evictCache(Long id) {
+        em.getEntityManagerFactory().getCache().evict(Team.class, id);
+        snapshot.invalidate();
+    }
+
+    /**
+     * 여러 팀을 직접 변경한 경우 팀 캐시 전체를 비움
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void evictCache() {
+        em.getEntityManagerFactory().getCache().evict(Team.class);
+        snapshot.invalidate();
+    }
+
+    /**
+     * 팀 벌크 연산이 커밋되면 스냅샷을 버림
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(BulkChangeEvent event) {
+        if (event.getEntityType() == Team.class) {
+            snapshot.invalidate();
+        }
+    }
+
 }
@@ -0,0 +1,60 @@
+package study.querydsl.repository.support;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * 조회 쿼리를 DB 전용 executor 에서 실행
+ * => 작업 스레드에서 읽기 전용 트랜잭션을 새로 시작하므로 호출 스레드의 트랜잭션 / 영속성 컨텍스트와 무관함
+ * => 반환된 엔티티는 트랜잭션이 끝난 뒤라 준영속 상태 (지연 로딩 불가) , 가능하면 DTO 로 조회할 것
+ * => executor 큐가 가득 차면 예외를 던지지 않고 실패한 future 를 반환
+ */
+public class AsyncQueries {
+
+    private final Executor executor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AsyncQueries(Executor executor, PlatformTransactionManager transactionManager) {
+        this.executor = executor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * 서로 독립적인 두 쿼리를 각각 다른 커넥션에서 동시에 실행
+     * 예) 회원 목록 + 팀 통계
+     */
+    public <A, B, R> CompletableFuture<R> both(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combiner) {
+        return supply(first).thenCombine(supply(second), combiner);
+    }
+
+    /**
+     * 페이지 내용과 count 쿼리를 동시에 실행
+     * => count 를 생략할 수 없는 대신 두 쿼리 중 느린 쪽 시간만 걸림
+     */
+    public <T> CompletableFuture<Page<T>> page(Supplier<List<T>> content, Supplier<Long> count, Pageable pageable) {
+        return both(content, count, (rows, total) -> new PageImpl<>(rows, pageable, total));
+    }
+}
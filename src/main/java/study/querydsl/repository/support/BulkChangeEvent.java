@@ -0,0 +1,28 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * JPQL 벌크 수정 / 삭제가 실행됨
+ * => 벌크 연산은 엔티티 이벤트가 발생하지 않으므로 엔티티 기준으로 유지되는 파생 데이터 (통계 등) 를 다시 계산하라는 신호
+ * => 수정은 행 수가 그대로이므로 전체 count 는 다시 셀 필요 없음 , 삭제는 rows 만큼 줄어듦
+ */
+@Getter
+@ToString
+public class BulkChangeEvent {
+
+    public enum Operation {
+        UPDATE, DELETE
+    }
+
+    private final Class<?> entityType;
+    private final Operation operation;
+    private final long rows;
+
+    public BulkChangeEvent(Class<?> entityType, Operation operation, long rows) {
+        this.entityType = entityType;
+        this.operation = operation;
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,32 @@
+package study.querydsl.repository.support;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 대량 insert
+ * 1. 시퀀스는 allocationSize 만큼 미리 할당받으므로 (pooled-lo) insert 마다 시퀀스를 조회하지 않음
+ * 2. hibernate.jdbc.batch_size / order_inserts 설정으로 insert 를 묶어서 전송
+ * 3. flushSize 건마다 flush / clear 해서 영속성 컨텍스트가 커지지 않도록 함
+ */
+public final class BulkInsertSupport {
+
+    private BulkInsertSupport() {
+    }
+
+    public static <T> long persistAll(EntityManager em, Iterable<T> entities, int flushSize) {
+        if (flushSize < 1) {
+            throw new IllegalArgumentException("flushSize 는 1 이상이어야 함 : " + flushSize);
+        }
+        long count = 0;
+        for (T entity : entities) {
+            em.persist(entity);
+            if (++count % flushSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
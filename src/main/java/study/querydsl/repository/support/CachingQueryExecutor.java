@@ -0,0 +1,242 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.support.ReplaceVisitor;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NonUniqueResultException;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JPAQuery 실행 앞단의 JPQL 캐시
+ * JPAQuery.fetch() 는 호출할 때마다 메타데이터를 JPQL 로 직렬화하고
+ * 상수 값이 다르면 hibernate 쿼리 플랜 캐시도 매번 새로 만들어야 함
+ * => 쿼리 모양(QueryShape)을 키로 where 절 상수를 파라미터로 바꾼 JPQL 을 캐시
+ * => 같은 모양이면 직렬화 없이 파라미터만 바인딩하고 항상 같은 JPQL 이라 플랜 캐시도 적중
+ * => maxSize 를 넘으면 가장 오래 사용하지 않은 항목부터 제거 (LRU)
+ * => JPAQuery 에 setHint / setLockMode 로 준 옵션은 적용되지 않음
+ */
+public class CachingQueryExecutor {
+
+    private final EntityManager em;
+    private final JPQLTemplates templates;
+    private final Map<QueryShape, CachedQuery> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingQueryExecutor(EntityManager em, int maxSize) {
+        this(em, HQLTemplates.DEFAULT, maxSize);
+    }
+
+    public CachingQueryExecutor(EntityManager em, JPQLTemplates templates, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize 는 1 이상이어야 함 : " + maxSize);
+        }
+        this.em = em;
+        this.templates = templates;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<QueryShape, CachedQuery>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<QueryShape, CachedQuery> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> fetch(JPAQuery<T> jpaQuery) {
+        QueryMetadata metadata = jpaQuery.getMetadata();
+        QueryShape shape = QueryShape.of(metadata);
+
+        CachedQuery cached = cache.get(shape);
+        if (cached == null) {
+            misses.increment();
+            cached = compile(metadata, shape);
+            cache.put(shape, cached);
+        } else {
+            hits.increment();
+        }
+
+        Query query = em.createQuery(cached.jpql);
+        JPAUtil.setConstants(query, cached.constants, cached.params(shape.getValues(), metadata.getParams()));
+        QueryModifiers modifiers = metadata.getModifiers();
+        if (modifiers.getOffsetAsInteger() != null) {
+            query.setFirstResult(modifiers.getOffsetAsInteger());
+        }
+        if (modifiers.getLimitAsInteger() != null) {
+            query.setMaxResults(modifiers.getLimitAsInteger());
+        }
+
+        List<?> rows = query.getResultList();
+        Expression<?> projection = metadata.getProjection();
+        if (!(projection instanceof FactoryExpression)) {
+            return (List<T>) rows;
+        }
+        FactoryExpression<T> factory = (FactoryExpression<T>) projection;
+        List<T> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(row instanceof Object[] ? factory.newInstance((Object[]) row) : factory.newInstance(row));
+        }
+        return result;
+    }
+
+    public <T> T fetchOne(JPAQuery<T> jpaQuery) {
+        List<T> result = fetch(jpaQuery);
+        if (result.size() > 1) {
+            throw new NonUniqueResultException("결과가 " + result.size() + " 건");
+        }
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 캐시 미스일 때만 실행
+     * => 자리가 정해진 상수를 Param 으로 바꾼 메타데이터를 JPQL 로 직렬화
+     */
+    private CachedQuery compile(QueryMetadata source, QueryShape shape) {
+        Param<?>[] slotParams = new Param<?>[shape.getValues().size()];
+        for (Map.Entry<Constant<?>, Integer> slot : shape.getSlots().entrySet()) {
+            slotParams[slot.getValue()] = new Param<>(slot.getKey().getType(), "slot" + slot.getValue());
+        }
+        SlotReplaceVisitor replacer = new SlotReplaceVisitor(shape.getSlots(), slotParams);
+
+        DefaultQueryMetadata metadata = new DefaultQueryMetadata();
+        metadata.setDistinct(source.isDistinct());
+        metadata.setProjection(source.getProjection());
+        for (JoinExpression join : source.getJoins()) {
+            metadata.addJoin(join.getType(), join.getTarget());
+            if (join.getCondition() != null) {
+                metadata.addJoinCondition((Predicate) join.getCondition().accept(replacer, null));
+            }
+            for (JoinFlag flag : join.getFlags()) {
+                metadata.addJoinFlag(flag);
+            }
+        }
+        if (source.getWhere() != null) {
+            metadata.addWhere((Predicate) source.getWhere().accept(replacer, null));
+        }
+        for (Expression<?> groupBy : source.getGroupBy()) {
+            metadata.addGroupBy(groupBy);
+        }
+        if (source.getHaving() != null) {
+            metadata.addHaving((Predicate) source.getHaving().accept(replacer, null));
+        }
+        for (OrderSpecifier<?> order : source.getOrderBy()) {
+            metadata.addOrderBy(order);
+        }
+        for (QueryFlag flag : source.getFlags()) {
+            metadata.addFlag(flag);
+        }
+
+        JPQLSerializer serializer = new JPQLSerializer(templates, em);
+        serializer.serialize(metadata, false, null);
+        return new CachedQuery(serializer.toString(), new ArrayList<>(serializer.getConstants()), slotParams);
+    }
+
+    /**
+     * 자리가 정해진 상수만 Param 으로 교체
+     */
+    private static class SlotReplaceVisitor extends ReplaceVisitor<Void> {
+        private final Map<Constant<?>, Integer> slots;
+        private final Param<?>[] slotParams;
+
+        SlotReplaceVisitor(Map<Constant<?>, Integer> slots, Param<?>[] slotParams) {
+            this.slots = slots;
+            this.slotParams = slotParams;
+        }
+
+        @Override
+        public Expression<?> visit(Constant<?> expr, Void context) {
+            Integer slot = slots.get(expr);
+            return slot != null ? slotParams[slot] : expr;
+        }
+
+        @Override
+        public Expression<?> visit(Operation<?> expr, Void context) {
+            if (QueryShape.isLiteralOperator(expr.getOperator())) {
+                return expr;
+            }
+            return super.visit(expr, context);
+        }
+
+        @Override
+        public Expression<?> visit(FactoryExpression<?> expr, Void context) {
+            return expr;
+        }
+
+        @Override
+        public Expression<?> visit(TemplateExpression<?> expr, Void context) {
+            return expr;
+        }
+    }
+
+    private static class CachedQuery {
+        private final String jpql;
+        private final List<Object> constants;
+        private final Param<?>[] slotParams;
+
+        CachedQuery(String jpql, List<Object> constants, Param<?>[] slotParams) {
+            this.jpql = jpql;
+            this.constants = constants;
+            this.slotParams = slotParams;
+        }
+
+        Map<ParamExpression<?>, Object> params(List<Object> values, Map<ParamExpression<?>, Object> userParams) {
+            Map<ParamExpression<?>, Object> params = new HashMap<>(userParams);
+            for (int i = 0; i < slotParams.length; i++) {
+                params.put(slotParams[i], values.get(i));
+            }
+            return params;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * 대량 벌크 수정 / 삭제를 pk 범위로 나눠서 실행
+ * delete(member).where(member.age.gt(18)).execute() 한 번이면 테이블 전체에 락이 걸리고 undo 로그가 커지므로
+ * 1. 조건에 맞는 id 의 min ~ max 를 구하고
+ * 2. chunkSize 범위씩 where (조건 and id between lo and hi) 로 실행 , 청크마다 커밋 (REQUIRES_NEW)
+ * 3. 초당 처리 행 수 제한 , 취소 , 진행 상황 콜백 지원
+ * => 청크마다 커밋하므로 트랜잭션 밖에서 호출할 것 (중간에 취소 / 실패하면 이전 청크는 이미 반영됨)
+ * => 반영된 행이 있으면 끝난 뒤 (실패해도) BulkChangeEvent 를 한 번 발행
+ * 예) executor.delete(member, member.id, member.age.gt(18), ChunkedBulkOptions.builder().chunkSize(5000).build())
+ */
+public class ChunkedBulkExecutor {
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate readTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ChunkedBulkExecutor(EntityManager em, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public ChunkedBulkProgress delete(EntityPath<?> root, NumberPath<Long> id, Predicate where, ChunkedBulkOptions options) {
+        return execute(root, id, where, options, BulkChangeEvent.Operation.DELETE, (lo, hi) ->
+                () -> queryFactory.delete(root).where(where, id.between(lo, hi)).execute());
+    }
+
+    public ChunkedBulkProgress update(EntityPath<?> root, NumberPath<Long> id, Predicate where,
+                                      Consumer<JPAUpdateClause> assignments, ChunkedBulkOptions options) {
+        return execute(root, id, where, options, BulkChangeEvent.Operation.UPDATE, (lo, hi) -> () -> {
+            JPAUpdateClause update = queryFactory.update(root).where(where, id.between(lo, hi));
+            assignments.accept(update);
+            return update.execute();
+        });
+    }
+
+    private ChunkedBulkProgress execute(EntityPath<?> root, NumberPath<Long> id, Predicate where,
+                                        ChunkedBulkOptions options, BulkChangeEvent.Operation operation,
+                                        ChunkStatement statement) {
+        if (options.getChunkSize() < 1) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 함 : " + options.getChunkSize());
+        }
+        long start = System.nanoTime();
+
+        Tuple range = readTransaction.execute(status -> queryFactory
+                .select(id.min(), id.max())
+                .from(root)
+                .where(where)
+                .fetchOne());
+        Long minId = range != null ? range.get(id.min()) : null;
+        Long maxId = range != null ? range.get(id.max()) : null;
+        if (minId == null) {
+            return new ChunkedBulkProgress(0, 0, null, null, elapsedMillis(start), false, true);
+        }
+
+        long[] rows = {0};
+        try {
+            return executeChunks(id, options, statement, start, minId, maxId, rows);
+        } finally {
+            if (rows[0] > 0) {
+                eventPublisher.publishEvent(new BulkChangeEvent(root.getType(), operation, rows[0]));
+            }
+        }
+    }
+
+    /**
+     * @param rows 실패해도 반영된 행 수를 알 수 있도록 배열로 받아서 누적
+     */
+    private ChunkedBulkProgress executeChunks(NumberPath<Long> id, ChunkedBulkOptions options, ChunkStatement statement,
+                                              long start, long minId, long maxId, long[] rows) {
+        long chunks = 0;
+        Long lastId = null;
+        long lo = minId;
+        while (lo <= maxId) {
+            if (options.getCancelled().getAsBoolean()) {
+                return new ChunkedBulkProgress(chunks, rows[0], lastId, maxId, elapsedMillis(start), true, false);
+            }
+            long hi = maxId - lo < options.getChunkSize() ? maxId : lo + options.getChunkSize() - 1;
+
+            LongSupplier chunk = statement.of(lo, hi);
+            Long affected = chunkTransaction.execute(status -> chunk.getAsLong());
+            rows[0] += affected != null ? affected : 0;
+            chunks++;
+            lastId = hi;
+            options.getProgressListener().accept(
+                    new ChunkedBulkProgress(chunks, rows[0], lastId, maxId, elapsedMillis(start), false, hi == maxId));
+
+            if (!throttle(start, rows[0], options.getMaxRowsPerSecond())) {
+                return new ChunkedBulkProgress(chunks, rows[0], lastId, maxId, elapsedMillis(start), true, false);
+            }
+            if (hi == maxId) {
+                break;
+            }
+            lo = hi + 1;
+        }
+        return new ChunkedBulkProgress(chunks, rows[0], lastId, maxId, elapsedMillis(start), false, true);
+    }
+
+    /**
+     * 지금까지 처리한 행 수가 허용량보다 많으면 그만큼 대기
+     * => 대기 중 인터럽트되면 취소로 처리 (false)
+     */
+    private static boolean throttle(long start, long rows, long maxRowsPerSecond) {
+        if (maxRowsPerSecond <= 0) {
+            return true;
+        }
+        long expectedNanos = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond;
+        long waitNanos = expectedNanos - (System.nanoTime() - start);
+        if (waitNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @FunctionalInterface
+    private interface ChunkStatement {
+        LongSupplier of(long lo, long hi);
+    }
+}
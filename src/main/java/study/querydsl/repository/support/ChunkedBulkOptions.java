@@ -0,0 +1,32 @@
+package study.querydsl.repository.support;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * 청크 단위 벌크 연산 옵션
+ */
+@Getter
+@Builder
+public class ChunkedBulkOptions {
+
+    /* 한 번에 처리할 id 범위 크기 */
+    @Builder.Default
+    private final long chunkSize = 1000;
+
+    /* 초당 최대 처리 행 수 (0 이면 제한 없음) */
+    @Builder.Default
+    private final long maxRowsPerSecond = 0;
+
+    /* 청크 시작 전마다 확인 , true 면 남은 청크는 실행하지 않음 */
+    @Builder.Default
+    private final BooleanSupplier cancelled = () -> false;
+
+    /* 청크가 커밋될 때마다 호출 */
+    @Builder.Default
+    private final Consumer<ChunkedBulkProgress> progressListener = progress -> {
+    };
+}
@@ -0,0 +1,35 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 청크 단위 벌크 연산 진행 상황 (마지막 값이 최종 결과)
+ */
+@Getter
+@ToString
+public class ChunkedBulkProgress {
+
+    private final long chunks;
+    private final long rows;
+    private final Long lastId;
+    private final Long maxId;
+    private final long elapsedMillis;
+    private final boolean cancelled;
+    private final boolean completed;
+
+    ChunkedBulkProgress(long chunks, long rows, Long lastId, Long maxId, long elapsedMillis,
+                        boolean cancelled, boolean completed) {
+        this.chunks = chunks;
+        this.rows = rows;
+        this.lastId = lastId;
+        this.maxId = maxId;
+        this.elapsedMillis = elapsedMillis;
+        this.cancelled = cancelled;
+        this.completed = completed;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,191 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.collections.CollQueryFactory;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 작고 자주 조회되는 엔티티 (Team) 의 메모리 스냅샷
+ * 같은 Predicate / OrderSpecifier 를 DB 대신 querydsl-collections 로 스냅샷에 평가
+ * => 스냅샷은 별도 EntityManager 로 읽은 준영속 엔티티의 불변 목록 (호출한 트랜잭션의 영속성 컨텍스트와 무관)
+ * => 같은 조건 + 정렬의 결과는 스냅샷이 바뀔 때까지 메모 (MAX_CACHED_RESULTS 개 , LRU) => 반복 조회는 해시 조회 한 번
+ * => 엔티티가 커밋되면 (hibernate POST_COMMIT 이벤트) 스냅샷을 버리고 다음 조회에서 다시 읽음
+ * => JPQL 벌크 연산 / JDBC 로 바꾼 경우는 invalidate 를 직접 호출
+ * => 지연 로딩 연관관계 (team.members) 를 쓰는 조건은 평가할 수 없음 (LazyInitializationException)
+ * => 반환된 엔티티는 공유 객체이므로 수정하지 말 것 (수정은 em.find 로 다시 조회해서)
+ */
+public class InMemorySnapshot<T> {
+
+    private static final int MAX_CACHED_RESULTS = 1024;
+
+    private final EntityManagerFactory emf;
+    private final EntityPath<T> root;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot<T> current;
+
+    public InMemorySnapshot(EntityManagerFactory emf, EntityPath<T> root) {
+        this.emf = emf;
+        this.root = root;
+        registerInvalidation();
+    }
+
+    public List<T> fetch(Predicate where, OrderSpecifier<?>... orders) {
+        Snapshot<T> snapshot = snapshot();
+        List<Object> key = Arrays.asList(where, Arrays.asList(orders));
+        List<T> cached = snapshot.results.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<T> result = Collections.unmodifiableList(CollQueryFactory
+                .from(root, snapshot.rows)
+                .where(where)
+                .orderBy(orders)
+                .fetch());
+        snapshot.results.put(key, result);
+        return result;
+    }
+
+    public T fetchFirst(Predicate where, OrderSpecifier<?>... orders) {
+        List<T> result = fetch(where, orders);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    public int size() {
+        return snapshot().rows.size();
+    }
+
+    /**
+     * 스냅샷을 버림 => 다음 조회에서 다시 읽음
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        current = null;
+    }
+
+    /**
+     * 읽는 도중 invalidate 되면 읽은 결과는 이번 조회에만 쓰고 저장하지 않음
+     */
+    private Snapshot<T> snapshot() {
+        Snapshot<T> snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current;
+            if (snapshot != null) {
+                return snapshot;
+            }
+            long loadedGeneration = generation.get();
+            snapshot = new Snapshot<>(load());
+            if (generation.get() == loadedGeneration) {
+                current = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    private List<T> load() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return Collections.unmodifiableList(new ArrayList<>(new JPAQueryFactory(em)
+                    .selectFrom(root)
+                    .setHint(QueryHints.READ_ONLY, true)
+                    .fetch()));
+        } finally {
+            em.close();
+        }
+    }
+
+    private void registerInvalidation() {
+        InvalidationListener listener = new InvalidationListener();
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    private static class Snapshot<T> {
+        private final List<T> rows;
+        private final Map<List<Object>, List<T>> results = Collections.synchronizedMap(
+                new LinkedHashMap<List<Object>, List<T>>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<List<Object>, List<T>> eldest) {
+                        return size() > MAX_CACHED_RESULTS;
+                    }
+                });
+
+        Snapshot(List<T> rows) {
+            this.rows = rows;
+        }
+    }
+
+    private class InvalidationListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            invalidateIfMatches(event.getEntity());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            invalidateIfMatches(event.getEntity());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            invalidateIfMatches(event.getEntity());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return persister.getMappedClass() == root.getType();
+        }
+
+        /**
+         * POST_COMMIT 리스너는 다른 엔티티의 이벤트도 받으므로 타입 확인
+         */
+        private void invalidateIfMatches(Object entity) {
+            if (root.getType().isInstance(entity)) {
+                invalidate();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package study.querydsl.repository.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * keyset 페이징 커서
+ * => 마지막 행의 정렬 컬럼 값을 "길이:값" 으로 이어붙인 뒤 base64 로 감싼 불투명한 문자열
+ * => 첫 번째 값은 정렬 스펙이라 다른 정렬로 만든 커서는 거부함
+ */
+public final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(String sortSpec, List<Object> values) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, sortSpec);
+        for (Object value : values) {
+            if (value == null) {
+                throw new IllegalStateException("keyset 컬럼 값이 null 이면 커서를 만들 수 없음");
+            }
+            append(sb, value.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static List<Object> decode(String cursor, String sortSpec, List<Class<?>> types) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서 : " + cursor, e);
+        }
+
+        List<String> tokens = split(raw, cursor);
+        if (tokens.size() != types.size() + 1 || !tokens.get(0).equals(sortSpec)) {
+            throw new IllegalArgumentException("정렬 조건과 맞지 않는 커서 : " + cursor);
+        }
+
+        List<Object> values = new ArrayList<>(types.size());
+        for (int i = 0; i < types.size(); i++) {
+            values.add(convert(tokens.get(i + 1), types.get(i)));
+        }
+        return values;
+    }
+
+    private static void append(StringBuilder sb, String value) {
+        sb.append(value.length()).append(':').append(value);
+    }
+
+    private static List<String> split(String raw, String cursor) {
+        List<String> tokens = new ArrayList<>();
+        int pos = 0;
+        try {
+            while (pos < raw.length()) {
+                int colon = raw.indexOf(':', pos);
+                int length = Integer.parseInt(raw.substring(pos, colon));
+                tokens.add(raw.substring(colon + 1, colon + 1 + length));
+                pos = colon + 1 + length;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서 : " + cursor, e);
+        }
+        return tokens;
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(value);
+        }
+        throw new IllegalArgumentException("keyset 커서가 지원하지 않는 타입 : " + type.getName());
+    }
+}
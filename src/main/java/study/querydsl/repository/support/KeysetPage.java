@@ -0,0 +1,37 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * keyset 페이징 결과
+ * => nextCursor 가 null 이면 마지막 페이지
+ */
+@Getter
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * size + 1 건을 조회한 결과로 페이지를 만듦
+     * => 한 건이 더 있으면 다음 페이지가 있다는 뜻
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int size, KeysetSort<T> sort) {
+        if (fetched.size() <= size) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> content = fetched.subList(0, size);
+        return new KeysetPage<>(content, sort.cursorOf(content.get(size - 1)));
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
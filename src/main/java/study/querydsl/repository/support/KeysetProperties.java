@@ -0,0 +1,75 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * keyset 페이징에 사용할 수 있는 정렬 컬럼 목록
+ * => 정렬 스펙의 이름 , querydsl 경로 , 마지막 행에서 값을 꺼내는 getter 를 함께 등록
+ * => unique 컬럼(보통 id)은 정렬 스펙에 없어도 항상 마지막 정렬 기준으로 붙음
+ */
+public class KeysetProperties<T> {
+
+    private final Map<String, Property<T>> properties = new LinkedHashMap<>();
+    private String uniqueKey;
+
+    public <V extends Comparable> KeysetProperties<T> add(String name, ComparableExpressionBase<V> path, Function<T, V> getter) {
+        properties.put(name, new Property<>(name, path, getter));
+        return this;
+    }
+
+    public KeysetProperties<T> unique(String name) {
+        if (!properties.containsKey(name)) {
+            throw new IllegalArgumentException("등록되지 않은 keyset 컬럼 : " + name);
+        }
+        this.uniqueKey = name;
+        return this;
+    }
+
+    Property<T> get(String name) {
+        Property<T> property = properties.get(name);
+        if (property == null) {
+            throw new IllegalArgumentException("keyset 정렬을 지원하지 않는 컬럼 : " + name);
+        }
+        return property;
+    }
+
+    String getUniqueKey() {
+        if (uniqueKey == null) {
+            throw new IllegalStateException("keyset 정렬에는 unique 컬럼이 필요함");
+        }
+        return uniqueKey;
+    }
+
+    Map<String, Property<T>> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    static class Property<T> {
+        private final String name;
+        private final ComparableExpressionBase<?> path;
+        private final Function<T, ?> getter;
+
+        Property(String name, ComparableExpressionBase<?> path, Function<T, ?> getter) {
+            this.name = name;
+            this.path = path;
+            this.getter = getter;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        ComparableExpressionBase<?> getPath() {
+            return path;
+        }
+
+        Object valueOf(T row) {
+            return getter.apply(row);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.Expressions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * keyset(seek) 페이징 정렬
+ * "age desc, username asc, id" 형태의 스펙을 파싱해서
+ * 1. order by 절
+ * 2. 커서(마지막 행) 이후의 행만 남기는 where 조건
+ * 을 만든다
+ * => JPQL 은 (a, b) > (?, ?) 같은 튜플 비교를 지원하지 않으므로
+ * a > ? or (a = ? and b > ?) ... 로 풀어서 조건을 만듦
+ * => offset 을 쓰지 않으므로 몇 번째 페이지든 인덱스 탐색 비용이 같음
+ */
+public class KeysetSort<T> {
+
+    private final List<KeysetProperties.Property<T>> properties;
+    private final List<Order> orders;
+    private final String spec;
+
+    private KeysetSort(List<KeysetProperties.Property<T>> properties, List<Order> orders) {
+        this.properties = properties;
+        this.orders = orders;
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < properties.size(); i++) {
+            tokens.add(properties.get(i).getName() + " " + orders.get(i).name().toLowerCase());
+        }
+        this.spec = String.join(",", tokens);
+    }
+
+    public static <T> KeysetSort<T> parse(String sortSpec, KeysetProperties<T> keysetProperties) {
+        List<KeysetProperties.Property<T>> properties = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+
+        if (sortSpec != null && !sortSpec.trim().isEmpty()) {
+            for (String token : sortSpec.split(",")) {
+                String[] parts = token.trim().split("\\s+");
+                if (parts.length > 2) {
+                    throw new IllegalArgumentException("잘못된 정렬 조건 : " + token);
+                }
+                KeysetProperties.Property<T> property = keysetProperties.get(parts[0]);
+                if (properties.contains(property)) {
+                    throw new IllegalArgumentException("정렬 조건 중복 : " + parts[0]);
+                }
+                properties.add(property);
+                orders.add(parts.length == 2 ? Order.valueOf(parts[1].toUpperCase()) : Order.ASC);
+            }
+        }
+
+        // 정렬 값이 같은 행이 있어도 순서가 흔들리지 않도록 unique 컬럼을 마지막에 붙임
+        KeysetProperties.Property<T> unique = keysetProperties.get(keysetProperties.getUniqueKey());
+        if (!properties.contains(unique)) {
+            properties.add(unique);
+            orders.add(Order.ASC);
+        }
+        return new KeysetSort<>(properties, orders);
+    }
+
+    public String getSpec() {
+        return spec;
+    }
+
+    public OrderSpecifier<?>[] toOrderSpecifiers() {
+        OrderSpecifier<?>[] specifiers = new OrderSpecifier<?>[properties.size()];
+        for (int i = 0; i < properties.size(); i++) {
+            ComparableExpressionBase<?> path = properties.get(i).getPath();
+            specifiers[i] = orders.get(i) == Order.ASC ? path.asc() : path.desc();
+        }
+        return specifiers;
+    }
+
+    /**
+     * 커서 이후의 행 조건
+     * 커서가 없으면 첫 페이지이므로 null (where 에서 무시됨)
+     */
+    public Predicate after(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        List<Class<?>> types = properties.stream()
+                .map(property -> (Class<?>) property.getPath().getType())
+                .collect(Collectors.toList());
+        List<Object> values = KeysetCursor.decode(cursor, spec, types);
+
+        Predicate seek = null;
+        Predicate equalPrefix = null;
+        for (int i = 0; i < properties.size(); i++) {
+            ComparableExpressionBase<?> path = properties.get(i).getPath();
+            Predicate compare = compare(path, orders.get(i) == Order.ASC ? Ops.GT : Ops.LT, values.get(i));
+            Predicate term = equalPrefix == null ? compare : ExpressionUtils.and(equalPrefix, compare);
+            seek = seek == null ? term : ExpressionUtils.or(seek, term);
+
+            Predicate equal = compare(path, Ops.EQ, values.get(i));
+            equalPrefix = equalPrefix == null ? equal : ExpressionUtils.and(equalPrefix, equal);
+        }
+
+        if (properties.size() == 1) {
+            return seek;
+        }
+        // 첫 번째 정렬 컬럼 범위 조건을 따로 붙여 인덱스 range scan 이 가능하도록 함
+        ComparableExpressionBase<?> leading = properties.get(0).getPath();
+        Predicate leadingBound = compare(leading, orders.get(0) == Order.ASC ? Ops.GOE : Ops.LOE, values.get(0));
+        return ExpressionUtils.and(leadingBound, seek);
+    }
+
+    public String cursorOf(T row) {
+        List<Object> values = new ArrayList<>(properties.size());
+        for (KeysetProperties.Property<T> property : properties) {
+            values.add(property.valueOf(row));
+        }
+        return KeysetCursor.encode(spec, values);
+    }
+
+    private static Predicate compare(ComparableExpressionBase<?> path, Ops op, Object value) {
+        return Expressions.booleanOperation(op, path, Expressions.constant(value));
+    }
+}
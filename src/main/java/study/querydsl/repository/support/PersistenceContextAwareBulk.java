@@ -0,0 +1,307 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.collections.CollQueryFactory;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.LockMode;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.ManyToOneType;
+import org.hibernate.type.Type;
+import org.hibernate.type.TypeHelper;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 영속성 컨텍스트를 유지하는 벌크 수정 / 삭제
+ * 벌크 연산은 DB 에 바로 실행되므로 보통 em.flush(); em.clear(); 로 영속성 컨텍스트를 통째로 비우지만
+ * 1. 실행 전에 같은 조건을 메모리의 관리 엔티티에 적용해서 영향받는 엔티티만 찾고
+ * 2. 벌크 연산 실행 후 그 엔티티만 다시 읽어옴 (수정 , id in (...) 쿼리 한 번) / detach (삭제)
+ * 3. 해당 엔티티의 2차 캐시 리전 무효화
+ * => 나머지 엔티티는 영속성 컨텍스트에 그대로 남음
+ * => 연관관계를 따라가는 조건 (member.team.name 등) 은 메모리에서 평가하면 지연 로딩 (N+1) 이 일어나므로 평가하지 않음
+ *    연관 엔티티의 id (member.team.id) 는 프록시에서 바로 꺼낼 수 있으므로 평가
+ * => 평가하지 않거나 평가할 수 없는 조건 (서브쿼리 등) 이면 해당 타입의 관리 엔티티 전체를 대상으로 함 (로그를 남김)
+ *    수정은 전체를 한 번에 다시 읽고 , 삭제는 실행 후 남아 있는 id 를 한 번에 조회해서 사라진 것만 detach
+ */
+@Slf4j
+public class PersistenceContextAwareBulk {
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+
+    public PersistenceContextAwareBulk(EntityManager em) {
+        this.em = em;
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    public <T> long update(EntityPath<T> root, Predicate where, Consumer<JPAUpdateClause> assignments) {
+        Affected<T> affected = managedMatching(root, where);
+
+        JPAUpdateClause update = queryFactory.update(root).where(where);
+        assignments.accept(update);
+        long count = update.execute();
+
+        refresh(root, affected.entities);
+        evictSecondLevelCache(root);
+        return count;
+    }
+
+    public <T> long delete(EntityPath<T> root, Predicate where) {
+        Affected<T> affected = managedMatching(root, where);
+
+        long count = queryFactory.delete(root).where(where).execute();
+
+        Set<Object> remaining = affected.exact ? new HashSet<>() : existingIds(root, affected.entities);
+        for (T entity : affected.entities) {
+            if (!remaining.contains(idOf(entity))) {
+                em.detach(entity);
+            }
+        }
+        evictSecondLevelCache(root);
+        return count;
+    }
+
+    /**
+     * 벌크 연산과 같은 조건에 맞는 관리 엔티티
+     * => 먼저 flush 해서 메모리 상태와 DB 상태를 맞춘 뒤 평가
+     * => exact == false 면 조건을 평가하지 못한 것 (관리 엔티티 전체)
+     */
+    private <T> Affected<T> managedMatching(EntityPath<T> root, Predicate where) {
+        em.flush();
+
+        Class<? extends T> type = root.getType();
+        List<T> managed = new ArrayList<>();
+        SessionImplementor session = session();
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+            if (type.isInstance(entry.getKey()) && entry.getValue().getStatus() == Status.MANAGED) {
+                managed.add(type.cast(entry.getKey()));
+            }
+        }
+        if (managed.isEmpty() || where == null) {
+            return new Affected<>(managed, true);
+        }
+
+        String association = navigatedAssociation(root, where);
+        if (association != null) {
+            log.info("벌크 조건이 연관관계 {} 를 따라가므로 메모리에서 평가하지 않고 {} 의 관리 엔티티 {} 건 전체를 대상으로 함",
+                    association, type.getSimpleName(), managed.size());
+            return new Affected<>(managed, false);
+        }
+        try {
+            return new Affected<>(CollQueryFactory.from(root, managed).where(where).fetch(), true);
+        } catch (RuntimeException e) {
+            log.warn("벌크 조건 {} 을 메모리에서 평가할 수 없어 {} 의 관리 엔티티 {} 건 전체를 대상으로 함 : {}",
+                    where, type.getSimpleName(), managed.size(), e.toString());
+            return new Affected<>(managed, false);
+        }
+    }
+
+    /**
+     * 조건이 root 에서 연관관계를 따라가는 경로 (없으면 null)
+     * => root.연관.id 는 외래키 값이므로 허용 , 그 외 연관 엔티티 / 컬렉션을 거치는 경로는 지연 로딩이 필요
+     */
+    private String navigatedAssociation(EntityPath<?> root, Predicate where) {
+        EntityPersister persister = persister(root);
+        List<Path<?>> paths = new ArrayList<>();
+        where.accept(PathCollector.INSTANCE, paths);
+        for (Path<?> path : paths) {
+            List<Path<?>> chain = new ArrayList<>();
+            for (Path<?> current = path; current != null; current = current.getMetadata().getParent()) {
+                chain.add(0, current);
+            }
+            if (chain.size() < 2 || !chain.get(0).equals(root)) {
+                continue;
+            }
+            String property = chain.get(1).getMetadata().getName();
+            if (property.equals(persister.getIdentifierPropertyName())) {
+                continue;
+            }
+            Type type = persister.getPropertyType(property);
+            if (type instanceof CollectionType) {
+                return path.toString();
+            }
+            if (type instanceof EntityType) {
+                String targetId = ((EntityType) type).getIdentifierOrUniqueKeyPropertyName(session().getFactory());
+                boolean foreignKey = chain.size() == 3 && chain.get(2).getMetadata().getName().equals(targetId);
+                if (!foreignKey) {
+                    return path.toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * em.refresh 를 엔티티마다 호출하면 N 번 조회하므로 id in (...) 한 번으로 읽어서 같은 인스턴스에 덮어씀
+     * => 컬렉션 (벌크 수정으로 바뀌지 않음) 은 그대로 , ManyToOne 은 외래키로 참조 (프록시) 만 다시 연결
+     * => 덮어쓴 값을 로딩 시점 상태로 기록해서 flush 때 변경으로 보지 않게 함
+     */
+    private <T> void refresh(EntityPath<T> root, List<T> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        SessionImplementor session = session();
+        EntityPersister persister = persister(root);
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+
+        List<Integer> selected = new ArrayList<>();
+        StringBuilder jpql = new StringBuilder("select e.").append(persister.getIdentifierPropertyName());
+        for (int i = 0; i < names.length; i++) {
+            if (types[i] instanceof ManyToOneType) {
+                String targetId = ((EntityType) types[i]).getIdentifierOrUniqueKeyPropertyName(session.getFactory());
+                jpql.append(", e.").append(names[i]).append('.').append(targetId);
+                selected.add(i);
+            } else if (!types[i].isAssociationType()) {
+                jpql.append(", e.").append(names[i]);
+                selected.add(i);
+            }
+        }
+        jpql.append(" from ").append(persister.getEntityName()).append(" e where e.")
+                .append(persister.getIdentifierPropertyName()).append(" in :ids");
+
+        Map<Object, T> byId = new LinkedHashMap<>();
+        entities.forEach(entity -> byId.put(idOf(entity), entity));
+        List<?> rows = em.createQuery(jpql.toString())
+                .setParameter("ids", byId.keySet())
+                .getResultList();
+
+        for (Object row : rows) {
+            Object[] columns = row instanceof Object[] ? (Object[]) row : new Object[]{row};
+            T entity = byId.get(columns[0]);
+            Object[] values = persister.getPropertyValues(entity);
+            for (int c = 0; c < selected.size(); c++) {
+                int i = selected.get(c);
+                Object value = columns[c + 1];
+                if (types[i] instanceof ManyToOneType && value != null) {
+                    value = em.getReference(types[i].getReturnedClass(), value);
+                }
+                values[i] = value;
+            }
+            persister.setPropertyValues(entity, values);
+
+            Object[] loaded = values.clone();
+            TypeHelper.deepCopy(values, types, persister.getPropertyUpdateability(), loaded, session);
+            EntityEntry entry = session.getPersistenceContext().getEntry(entity);
+            entry.postUpdate(entity, loaded, persister.isVersioned() ? values[persister.getVersionProperty()] : null);
+            entry.setLockMode(LockMode.READ); // postUpdate 가 WRITE 로 바꾸므로 em.refresh 와 같게
+        }
+    }
+
+    /**
+     * 삭제 후에도 남아 있는 id (조건을 평가하지 못했을 때 한 번에 확인)
+     */
+    private <T> Set<Object> existingIds(EntityPath<T> root, List<T> entities) {
+        if (entities.isEmpty()) {
+            return new HashSet<>();
+        }
+        EntityPersister persister = persister(root);
+        String id = persister.getIdentifierPropertyName();
+        Set<Object> ids = new HashSet<>();
+        entities.forEach(entity -> ids.add(idOf(entity)));
+        return new HashSet<>(em.createQuery("select e." + id + " from " + persister.getEntityName() + " e where e." + id + " in :ids")
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    private Serializable idOf(Object entity) {
+        return session().getPersistenceContext().getEntry(entity).getId();
+    }
+
+    private EntityPersister persister(EntityPath<?> root) {
+        return session().getFactory().getMetamodel().entityPersister(root.getType());
+    }
+
+    private SessionImplementor session() {
+        return em.unwrap(SessionImplementor.class);
+    }
+
+    private void evictSecondLevelCache(EntityPath<?> root) {
+        em.getEntityManagerFactory().getCache().evict(root.getType());
+    }
+
+    private static class Affected<T> {
+        private final List<T> entities;
+        private final boolean exact;
+
+        private Affected(List<T> entities, boolean exact) {
+            this.entities = entities;
+            this.exact = exact;
+        }
+    }
+
+    /**
+     * 조건에 쓰인 모든 경로
+     */
+    private enum PathCollector implements Visitor<Void, List<Path<?>>> {
+        INSTANCE;
+
+        @Override
+        public Void visit(Constant<?> expr, List<Path<?>> paths) {
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, List<Path<?>> paths) {
+            expr.getArgs().forEach(arg -> arg.accept(this, paths));
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, List<Path<?>> paths) {
+            expr.getArgs().forEach(arg -> arg.accept(this, paths));
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, List<Path<?>> paths) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, List<Path<?>> paths) {
+            paths.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, List<Path<?>> paths) {
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, List<Path<?>> paths) {
+            for (Object arg : expr.getArgs()) {
+                if (arg instanceof Expression) {
+                    ((Expression<?>) arg).accept(this, paths);
+                }
+            }
+            return null;
+        }
+    }
+}
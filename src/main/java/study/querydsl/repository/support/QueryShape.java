@@ -0,0 +1,195 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 쿼리 구조(모양) 키
+ * where / having / join on 절의 상수는 값 대신 "타입 + 자리" 로만 키에 들어가고 값은 따로 모음
+ * => 상수 값만 다른 쿼리는 같은 키가 되어 JPQL 을 재사용할 수 있음
+ * => select / order by / group by 절 , like 계열 , IN 목록 , 템플릿의 상수는 JPQL 모양에 영향을 주므로 값까지 키에 포함
+ */
+final class QueryShape {
+
+    /* 직렬화할 때 상수를 %값% 처럼 가공하는 연산 => 파라미터로 바꾸면 escape 처리가 달라짐 */
+    private static final Set<Operator> LITERAL_OPERATORS = new HashSet<>(Arrays.<Operator>asList(
+            Ops.LIKE, Ops.LIKE_IC, Ops.LIKE_ESCAPE, Ops.LIKE_ESCAPE_IC,
+            Ops.STARTS_WITH, Ops.STARTS_WITH_IC, Ops.ENDS_WITH, Ops.ENDS_WITH_IC,
+            Ops.STRING_CONTAINS, Ops.STRING_CONTAINS_IC, Ops.MATCHES, Ops.MATCHES_IC
+    ));
+
+    private final List<Object> tokens;
+    private final int hash;
+    private final List<Object> values;
+    private final Map<Constant<?>, Integer> slots;
+
+    private QueryShape(List<Object> tokens, List<Object> values, Map<Constant<?>, Integer> slots) {
+        this.tokens = tokens;
+        this.hash = tokens.hashCode();
+        this.values = values;
+        this.slots = slots;
+    }
+
+    static QueryShape of(QueryMetadata metadata) {
+        Collector collector = new Collector();
+        collector.metadata(metadata);
+        return new QueryShape(collector.tokens, collector.values, collector.slots);
+    }
+
+    static boolean isLiteralOperator(Operator operator) {
+        return LITERAL_OPERATORS.contains(operator);
+    }
+
+    /**
+     * 파라미터 자리에 바인딩할 값 (자리 순서)
+     */
+    List<Object> getValues() {
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * 파라미터로 바꿀 상수 => 자리 번호
+     */
+    Map<Constant<?>, Integer> getSlots() {
+        return slots;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryShape)) {
+            return false;
+        }
+        QueryShape other = (QueryShape) o;
+        return hash == other.hash && tokens.equals(other.tokens);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * where / having / join 조건을 순회하면서 토큰과 상수를 모음
+     * => 나머지 절은 QueryDSL 표현식의 equals / hashCode 를 그대로 사용
+     */
+    private static class Collector implements Visitor<Void, Void> {
+        private final List<Object> tokens = new ArrayList<>();
+        private final List<Object> values = new ArrayList<>();
+        private final Map<Constant<?>, Integer> slots = new IdentityHashMap<>();
+
+        void metadata(QueryMetadata metadata) {
+            tokens.add(metadata.isDistinct());
+            tokens.add(metadata.getProjection());
+            for (JoinExpression join : metadata.getJoins()) {
+                tokens.add(join.getType());
+                tokens.add(join.getTarget());
+                tokens.add(join.getFlags());
+                condition(join.getCondition());
+            }
+            tokens.add("where");
+            condition(metadata.getWhere());
+            tokens.add(metadata.getGroupBy());
+            tokens.add("having");
+            condition(metadata.getHaving());
+            for (OrderSpecifier<?> order : metadata.getOrderBy()) {
+                tokens.add(order);
+            }
+            tokens.add(metadata.getFlags());
+        }
+
+        private void condition(Expression<?> condition) {
+            if (condition == null) {
+                tokens.add(null);
+            } else {
+                condition.accept(this, null);
+            }
+        }
+
+        @Override
+        public Void visit(Constant<?> expr, Void context) {
+            Integer slot = slots.get(expr);
+            if (slot != null) {
+                // 같은 상수 객체를 여러 곳에서 쓰면 같은 자리를 참조
+                tokens.add("#" + slot);
+            } else if (expr.getConstant() instanceof Collection) {
+                tokens.add(expr);
+            } else {
+                slots.put(expr, values.size());
+                values.add(expr.getConstant());
+                tokens.add(expr.getType());
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(Operation<?> expr, Void context) {
+            if (isLiteralOperator(expr.getOperator())) {
+                tokens.add(expr);
+                return null;
+            }
+            tokens.add(expr.getOperator());
+            tokens.add(expr.getArgs().size());
+            for (Expression<?> arg : expr.getArgs()) {
+                arg.accept(this, null);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(SubQueryExpression<?> expr, Void context) {
+            tokens.add("subquery");
+            metadata(expr.getMetadata());
+            tokens.add("end");
+            return null;
+        }
+
+        @Override
+        public Void visit(FactoryExpression<?> expr, Void context) {
+            tokens.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(ParamExpression<?> expr, Void context) {
+            tokens.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(Path<?> expr, Void context) {
+            tokens.add(expr);
+            return null;
+        }
+
+        @Override
+        public Void visit(TemplateExpression<?> expr, Void context) {
+            tokens.add(expr);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.JPAQueryMixin;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * fetchResults() / fetchCount() 대신 사용하는 페이징 헬퍼
+ * 1. count 쿼리는 컨텐츠 쿼리에서 order by , fetch join , offset/limit 을 뺀 별도 쿼리로 만듦
+ * 2. 첫 페이지 / 마지막 페이지에서 전체 개수를 알 수 있으면 count 쿼리를 실행하지 않음
+ * 3. Slice 는 limit + 1 건만 조회하고 count 쿼리를 아예 실행하지 않음
+ * => 넘겨준 컨텐츠 쿼리에 offset / limit 을 세팅하므로 재사용하지 말 것
+ */
+public class QuerydslPaging {
+
+    private final EntityManager em;
+
+    public QuerydslPaging(EntityManager em) {
+        this.em = em;
+    }
+
+    public <T> Page<T> page(JPAQuery<T> contentQuery, Pageable pageable) {
+        return page(contentQuery, pageable, countQueryOf(contentQuery));
+    }
+
+    /**
+     * count 쿼리를 직접 넘기는 경우
+     * => group by 쿼리나 join 을 더 줄일 수 있는 경우
+     */
+    public <T> Page<T> page(JPAQuery<T> contentQuery, Pageable pageable, JPAQuery<Long> countQuery) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(contentQuery.fetch());
+        }
+        List<T> content = contentQuery
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    public <T> Slice<T> slice(JPAQuery<T> contentQuery, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(contentQuery.fetch());
+        }
+        List<T> content = contentQuery
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 컨텐츠 쿼리의 from / join / where 만 가져와서 count 쿼리를 만듦
+     * => join 은 결과 행 수에 영향을 주므로 유지하고 fetch 플래그만 제거
+     */
+    @SuppressWarnings("unchecked")
+    public JPAQuery<Long> countQueryOf(JPAQuery<?> contentQuery) {
+        QueryMetadata source = contentQuery.getMetadata();
+        if (!source.getGroupBy().isEmpty()) {
+            throw new IllegalArgumentException("group by 쿼리는 count 쿼리를 직접 넘겨야 함");
+        }
+
+        DefaultQueryMetadata count = new DefaultQueryMetadata();
+        for (JoinExpression join : source.getJoins()) {
+            count.addJoin(join.getType(), join.getTarget());
+            if (join.getCondition() != null) {
+                count.addJoinCondition(join.getCondition());
+            }
+            for (JoinFlag flag : join.getFlags()) {
+                if (!flag.equals(JPAQueryMixin.FETCH) && !flag.equals(JPAQueryMixin.FETCH_ALL_PROPERTIES)) {
+                    count.addJoinFlag(flag);
+                }
+            }
+        }
+        if (source.getWhere() != null) {
+            count.addWhere(source.getWhere());
+        }
+        for (QueryFlag flag : source.getFlags()) {
+            count.addFlag(flag);
+        }
+        for (Map.Entry<ParamExpression<?>, Object> param : source.getParams().entrySet()) {
+            count.setParam((ParamExpression<Object>) param.getKey(), param.getValue());
+        }
+        count.setProjection(countExpression(source));
+
+        return new JPAQuery<Long>(em, count);
+    }
+
+    private static Expression<Long> countExpression(QueryMetadata source) {
+        Expression<?> root = source.getJoins().get(0).getTarget();
+        if (!source.isDistinct()) {
+            return Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_AGG, root);
+        }
+        Expression<?> projection = source.getProjection();
+        if (projection == null || projection.equals(root)) {
+            return Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_DISTINCT_AGG, root);
+        }
+        if (projection instanceof FactoryExpression) {
+            throw new IllegalArgumentException("여러 컬럼 distinct 쿼리는 count 쿼리를 직접 넘겨야 함");
+        }
+        return Expressions.numberOperation(Long.class, Ops.AggOps.COUNT_DISTINCT_AGG, projection);
+    }
+}
@@ -0,0 +1,31 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import org.hibernate.annotations.QueryHints;
+
+import javax.persistence.TypedQuery;
+
+/**
+ * 읽기 전용 조회 힌트
+ * => READ_ONLY : 조회한 엔티티의 스냅샷을 만들지 않음 => 메모리 절약 + flush 때 변경 감지 대상에서 제외
+ * => @Transactional(readOnly = true) 는 트랜잭션을 새로 시작할 때만 세션에 적용되므로
+ * 쓰기 트랜잭션 안에서 호출되는 조회에도 읽기 전용을 보장하려면 쿼리에 직접 힌트를 줌
+ * => 자동 flush 는 그대로 (쓰기 트랜잭션에서 flush 전 변경도 결과에 보임)
+ *    읽기 전용 트랜잭션은 JpaTransactionManager 가 세션을 FlushMode.MANUAL 로 두므로 flush 비용이 없음
+ * => 읽기 전용으로 조회한 엔티티는 수정해도 DB 에 반영되지 않음
+ */
+public final class ReadOnlyQueries {
+
+    private ReadOnlyQueries() {
+    }
+
+    public static <T> JPAQuery<T> readOnly(JPAQuery<T> query) {
+        return query
+                .setHint(QueryHints.READ_ONLY, true);
+    }
+
+    public static <T> TypedQuery<T> readOnly(TypedQuery<T> query) {
+        return query
+                .setHint(QueryHints.READ_ONLY, true);
+    }
+}
@@ -0,0 +1,42 @@
+package study.querydsl.repository.support;
+
+import javax.persistence.EntityManager;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 대용량 조회 스트리밍
+ * getResultList() 는 전체 결과를 리스트 하나에 담고 모든 엔티티를 영속성 컨텍스트에 남기지만
+ * getResultStream() 은 forward-only 커서로 한 행씩 읽으므로
+ * N 건마다 영속성 컨텍스트를 비워주면 테이블 크기와 상관없이 힙 사용량이 일정함
+ */
+public final class StreamingSupport {
+
+    private StreamingSupport() {
+    }
+
+    /**
+     * 스트림을 끝까지 읽으면서 clearEvery 건마다 em.clear()
+     * => clear 할 때 flush 하지 않으므로 읽기 전용(export) 용도로만 사용할 것
+     * => 인자를 검증한 뒤에 스트림 (커서) 을 열고 , 다 읽거나 예외가 나면 닫음
+     */
+    public static <T> long forEachClearing(EntityManager em, Supplier<Stream<T>> stream, int clearEvery, Consumer<? super T> action) {
+        if (clearEvery < 1) {
+            throw new IllegalArgumentException("clearEvery 는 1 이상이어야 함 : " + clearEvery);
+        }
+        long count = 0;
+        try (Stream<T> rows = stream.get()) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % clearEvery == 0) {
+                    em.clear();
+                }
+            }
+        }
+        em.clear();
+        return count;
+    }
+}
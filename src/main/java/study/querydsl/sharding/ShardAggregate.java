@@ -0,0 +1,166 @@
+package study.querydsl.sharding;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 샤드별로 부분 집계 후 합치는 집계 함수
+ * => count / sum 은 더하고 min / max 는 다시 비교
+ * => avg 는 샤드별 평균의 평균이 아니라 샤드별 sum , count 를 합쳐서 계산
+ * => 결과 Tuple 에서는 getResult() (예: member.age.avg()) 로 꺼냄 , 단일 DB 쿼리와 같은 표현식
+ */
+public final class ShardAggregate {
+
+    private enum Kind {COUNT, SUM, MIN, MAX, AVG}
+
+    private final Kind kind;
+    private final NumberExpression<?> argument;
+    private final Expression<?> result;
+
+    private ShardAggregate(Kind kind, NumberExpression<?> argument, Expression<?> result) {
+        this.kind = kind;
+        this.argument = argument;
+        this.result = result;
+    }
+
+    public static ShardAggregate count(NumberExpression<?> argument) {
+        return new ShardAggregate(Kind.COUNT, argument, argument.count());
+    }
+
+    public static ShardAggregate sum(NumberExpression<?> argument) {
+        return new ShardAggregate(Kind.SUM, argument, argument.sum());
+    }
+
+    public static ShardAggregate min(NumberExpression<?> argument) {
+        return new ShardAggregate(Kind.MIN, argument, argument.min());
+    }
+
+    public static ShardAggregate max(NumberExpression<?> argument) {
+        return new ShardAggregate(Kind.MAX, argument, argument.max());
+    }
+
+    public static ShardAggregate avg(NumberExpression<?> argument) {
+        return new ShardAggregate(Kind.AVG, argument, argument.avg());
+    }
+
+    public Expression<?> getResult() {
+        return result;
+    }
+
+    /**
+     * 샤드에서 실행할 부분 집계 컬럼
+     * => sum 은 샤드 안에서 넘치지 않도록 BigDecimal 로 받음
+     */
+    List<Expression<?>> partials() {
+        switch (kind) {
+            case COUNT:
+                return Collections.singletonList(argument.count());
+            case SUM:
+                return Collections.singletonList(decimalSum());
+            case MIN:
+                return Collections.singletonList(argument.min());
+            case MAX:
+                return Collections.singletonList(argument.max());
+            default:
+                return Arrays.asList(decimalSum(), argument.count());
+        }
+    }
+
+    Accumulator newAccumulator() {
+        return new Accumulator();
+    }
+
+    private Expression<BigDecimal> decimalSum() {
+        return Expressions.numberOperation(BigDecimal.class, Ops.AggOps.SUM_AGG, argument);
+    }
+
+    /**
+     * 그룹 하나의 집계 상태 , 샤드 결과 행을 차례로 더함
+     */
+    final class Accumulator {
+        private long count;
+        private BigDecimal sum;
+        private Comparable<Object> extreme;
+
+        /**
+         * column = 이 집계의 첫 부분 집계 컬럼 위치
+         */
+        @SuppressWarnings("unchecked")
+        void add(Tuple row, int column) {
+            switch (kind) {
+                case COUNT:
+                    count += row.get(column, Long.class);
+                    break;
+                case SUM:
+                    sum = add(sum, row.get(column, BigDecimal.class));
+                    break;
+                case MIN:
+                case MAX:
+                    Comparable<Object> value = (Comparable<Object>) row.get(column, Object.class);
+                    if (value != null && (extreme == null
+                            || (kind == Kind.MIN ? value.compareTo(extreme) < 0 : value.compareTo(extreme) > 0))) {
+                        extreme = value;
+                    }
+                    break;
+                default:
+                    sum = add(sum, row.get(column, BigDecimal.class));
+                    count += row.get(column + 1, Long.class);
+                    break;
+            }
+        }
+
+        /**
+         * 단일 DB 에서 같은 집계를 실행했을 때의 타입으로 반환
+         */
+        Object result() {
+            switch (kind) {
+                case COUNT:
+                    return count;
+                case SUM:
+                    return sum != null ? convert(sum, argument.getType()) : null;
+                case MIN:
+                case MAX:
+                    return extreme;
+                default:
+                    return count > 0 ? sum.doubleValue() / count : null;
+            }
+        }
+
+        private BigDecimal add(BigDecimal total, BigDecimal value) {
+            if (value == null) {
+                return total;
+            }
+            return total != null ? total.add(value) : value;
+        }
+    }
+
+    private static Object convert(BigDecimal value, Class<?> type) {
+        if (type == Integer.class) {
+            return value.intValue();
+        }
+        if (type == Long.class) {
+            return value.longValue();
+        }
+        if (type == Short.class) {
+            return value.shortValue();
+        }
+        if (type == Byte.class) {
+            return value.byteValue();
+        }
+        if (type == Double.class) {
+            return value.doubleValue();
+        }
+        if (type == Float.class) {
+            return value.floatValue();
+        }
+        return value;
+    }
+}
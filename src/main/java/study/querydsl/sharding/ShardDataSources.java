@@ -0,0 +1,40 @@
+package study.querydsl.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 샤드 커넥션 풀 (목록 순서 = 샤드 번호)
+ * => DataSource 빈이 아니므로 JPA / p6spy / 기본 DataSource 와 무관
+ * => 컨텍스트 종료 시 close (추론된 destroy 메서드) 로 모든 풀을 닫음
+ */
+public class ShardDataSources implements AutoCloseable {
+
+    private final List<HikariDataSource> shards;
+
+    public ShardDataSources(List<HikariDataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("sharding.shards 가 비어 있음");
+        }
+        this.shards = Collections.unmodifiableList(shards);
+    }
+
+    public HikariDataSource get(int shard) {
+        return shards.get(shard);
+    }
+
+    public List<HikariDataSource> getShards() {
+        return shards;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
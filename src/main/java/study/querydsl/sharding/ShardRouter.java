@@ -0,0 +1,35 @@
+package study.querydsl.sharding;
+
+/**
+ * 샤드 키 = team_id (Member.team 이 FK 를 소유)
+ * => 샤드 번호 = team_id % 샤드 수 , 팀이 없는 회원은 0 번 샤드
+ * => 회원 id 에 샤드 번호를 넣어서 (샤드 안 시퀀스 * 샤드 수 + 샤드 번호) id 만으로 샤드를 찾음
+ * => 샤드 수가 바뀌면 위치가 모두 달라지므로 재분배 없이는 변경 불가
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int shardOfTeam(Long teamId) {
+        return teamId != null ? (int) Math.floorMod(teamId, (long) shardCount) : 0;
+    }
+
+    public int shardOfMember(long memberId) {
+        return (int) Math.floorMod(memberId, (long) shardCount);
+    }
+
+    /**
+     * 샤드 안에서 발급한 시퀀스 값 => 전체 샤드에서 유일한 회원 id
+     */
+    public long memberId(long localSequence, int shard) {
+        return localSequence * shardCount + shard;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+}
@@ -0,0 +1,264 @@
+package study.querydsl.sharding;
+
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QTuple;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 같은 querydsl-sql 쿼리를 여러 샤드에서 병렬로 실행하고 결과를 합침 (scatter-gather)
+ * => 샤드가 하나면 호출한 스레드에서 바로 실행 (offset / limit 도 DB 에서 그대로)
+ * => 정렬 + 페이징 : 각 샤드에서 offset + size 개를 정렬해서 가져와 병합 정렬 후 다시 페이징
+ *    깊은 페이지일수록 샤드마다 읽는 행이 늘어남
+ * => 집계 : 샤드별 부분 집계 (ShardAggregate) 를 그룹 키로 합침
+ * => 샤드 쿼리는 각각 자동 커밋 커넥션에서 실행 (샤드 간 트랜잭션 / 일관된 스냅샷 없음)
+ */
+public class ShardedQueryExecutor implements AutoCloseable {
+
+    private final List<SQLQueryFactory> shards;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    /**
+     * configuration 은 샤드 전용 (SQLQueryFactory 가 커넥션을 닫는 리스너를 등록하므로 공유하면 안 됨)
+     */
+    public ShardedQueryExecutor(ShardDataSources dataSources, Configuration configuration, int threads, long timeoutMillis) {
+        List<SQLQueryFactory> factories = new ArrayList<>();
+        dataSources.getShards().forEach(dataSource -> factories.add(new SQLQueryFactory(configuration, dataSource)));
+        this.shards = Collections.unmodifiableList(factories);
+        // 스레드 수 = 샤드 커넥션 수 , 그 이상은 커넥션을 기다리며 블로킹됨
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("shard-"));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public SQLQueryFactory shard(int shard) {
+        return shards.get(shard);
+    }
+
+    public List<Integer> all() {
+        return IntStream.range(0, shards.size()).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * 샤드별 결과 (targets 순서)
+     */
+    public <T> List<List<T>> scatter(Collection<Integer> targets, Function<SQLQueryFactory, ? extends SQLQuery<T>> query) {
+        if (targets.size() == 1) {
+            return Collections.singletonList(query.apply(shards.get(targets.iterator().next())).fetch());
+        }
+        List<Future<List<T>>> futures = new ArrayList<>(targets.size());
+        for (Integer target : targets) {
+            SQLQueryFactory factory = shards.get(target);
+            futures.add(executor.submit(() -> query.apply(factory).fetch()));
+        }
+        return gather(futures);
+    }
+
+    /**
+     * 정렬 없이 이어 붙임
+     */
+    public <T> List<T> fetch(Collection<Integer> targets, Function<SQLQueryFactory, ? extends SQLQuery<T>> query) {
+        List<T> results = new ArrayList<>();
+        scatter(targets, query).forEach(results::addAll);
+        return results;
+    }
+
+    /**
+     * query 의 orderBy 와 order 는 같은 순서여야 함 (샤드 결과가 order 로 정렬되어 있다고 보고 병합)
+     * => 전체에서 유일한 값 (id) 을 마지막 정렬 기준으로 넣어야 페이지 경계가 흔들리지 않음
+     */
+    public <T> List<T> fetchSorted(Collection<Integer> targets, Function<SQLQueryFactory, ? extends SQLQuery<T>> query,
+                                   Comparator<? super T> order, Pageable pageable) {
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (targets.size() == 1 || pageable.isUnpaged()) {
+            Function<SQLQueryFactory, SQLQuery<T>> paged = factory -> {
+                SQLQuery<T> shardQuery = query.apply(factory);
+                return pageable.isPaged() ? shardQuery.offset(pageable.getOffset()).limit(pageable.getPageSize()) : shardQuery;
+            };
+            return targets.size() == 1 ? fetch(targets, paged) : merge(scatter(targets, paged), order, 0, Long.MAX_VALUE);
+        }
+
+        // 앞 페이지가 어느 샤드에 몰려 있을지 모르므로 샤드마다 offset + size 개
+        long rows = pageable.getOffset() + pageable.getPageSize();
+        List<List<T>> sorted = scatter(targets, factory -> query.apply(factory).restrict(QueryModifiers.limit(rows)));
+        return merge(sorted, order, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    /**
+     * from 은 select 전 쿼리 (from / join / where)
+     */
+    public long count(Collection<Integer> targets, Function<SQLQueryFactory, SQLQuery<?>> from) {
+        if (targets.isEmpty()) {
+            return 0L;
+        }
+        long total = 0;
+        for (Long count : fetch(targets, factory -> from.apply(factory).select(Wildcard.count))) {
+            total += count != null ? count : 0L;
+        }
+        return total;
+    }
+
+    /**
+     * select keys..., aggregates... from ... group by keys
+     * => 결과 Tuple 은 keys 와 ShardAggregate.getResult() 로 꺼냄 , 그룹 키 오름차순 (null 먼저)
+     * => 키가 없으면 전체 집계 한 행
+     * => having 은 샤드별 부분 집계에 적용되면 틀리므로 받지 않음 (결과에서 걸러야 함)
+     */
+    public List<Tuple> aggregate(Collection<Integer> targets, Function<SQLQueryFactory, SQLQuery<?>> from,
+                                 List<? extends Expression<?>> keys, List<ShardAggregate> aggregates) {
+        List<Expression<?>> columns = new ArrayList<>(keys);
+        aggregates.forEach(aggregate -> columns.addAll(aggregate.partials()));
+        Expression<?>[] select = columns.toArray(new Expression<?>[0]);
+        Expression<?>[] groupBy = keys.toArray(new Expression<?>[0]);
+
+        Map<List<Object>, List<ShardAggregate.Accumulator>> groups = new LinkedHashMap<>();
+        for (Tuple row : fetch(targets, factory -> from.apply(factory).select(select).groupBy(groupBy))) {
+            List<Object> key = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                key.add(row.get(i, Object.class));
+            }
+            List<ShardAggregate.Accumulator> accumulators = groups.computeIfAbsent(key,
+                    k -> aggregates.stream().map(ShardAggregate::newAccumulator).collect(Collectors.toList()));
+            int column = keys.size();
+            for (int i = 0; i < aggregates.size(); i++) {
+                accumulators.get(i).add(row, column);
+                column += aggregates.get(i).partials().size();
+            }
+        }
+        if (keys.isEmpty() && groups.isEmpty()) {
+            // 전체 집계는 행이 없어도 한 행 (count 0 , 나머지 null)
+            groups.put(Collections.emptyList(),
+                    aggregates.stream().map(ShardAggregate::newAccumulator).collect(Collectors.toList()));
+        }
+
+        List<Expression<?>> resultColumns = new ArrayList<>(keys);
+        aggregates.forEach(aggregate -> resultColumns.add(aggregate.getResult()));
+        QTuple tuple = Projections.tuple(resultColumns.toArray(new Expression<?>[0]));
+
+        List<Tuple> results = new ArrayList<>(groups.size());
+        groups.entrySet().stream()
+                .sorted(Map.Entry.<List<Object>, List<ShardAggregate.Accumulator>>comparingByKey(ShardedQueryExecutor::compareKeys))
+                .forEach(group -> {
+                    List<Object> values = new ArrayList<>(group.getKey());
+                    group.getValue().forEach(accumulator -> values.add(accumulator.result()));
+                    results.add(tuple.newInstance(values.toArray()));
+                });
+        return results;
+    }
+
+    /**
+     * 각 목록이 order 로 정렬되어 있을 때 k-way 병합 , offset 만큼 건너뛰고 limit 개
+     */
+    static <T> List<T> merge(List<List<T>> sorted, Comparator<? super T> order, long offset, long limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> order.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        List<T> results = new ArrayList<>((int) Math.min(limit, 1024));
+        long skipped = 0;
+        while (!heads.isEmpty() && results.size() < limit) {
+            int[] head = heads.poll();
+            List<T> shard = sorted.get(head[0]);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                results.add(shard.get(head[1]));
+            }
+            if (++head[1] < shard.size()) {
+                heads.add(head);
+            }
+        }
+        return results;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(List<Object> a, List<Object> b) {
+        for (int i = 0; i < a.size(); i++) {
+            Object x = a.get(i);
+            Object y = b.get(i);
+            if (x == y) {
+                continue;
+            }
+            if (x == null) {
+                return -1;
+            }
+            if (y == null) {
+                return 1;
+            }
+            int compared = ((Comparable) x).compareTo(y);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 전체 대기 시간을 넘기면 남은 샤드 쿼리를 취소하고 QueryTimeoutException
+     */
+    private <T> List<List<T>> gather(List<Future<List<T>>> futures) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<List<T>> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<List<T>> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return results;
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("샤드 조회가 " + timeoutMillis + "ms 안에 끝나지 않음", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DataRetrievalFailureException("샤드 조회 실패", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataRetrievalFailureException("샤드 조회 대기 중 인터럽트", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,40 @@
+package study.querydsl.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sharding.* 설정 (샤드 순서 = 샤드 번호 , 바꾸면 기존 데이터의 위치가 달라짐)
+ */
+@Getter
+@Setter
+@ConfigurationProperties("sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /* 시작 시 각 샤드에 sharding/schema.sql 실행 (create if not exists) */
+    private boolean initializeSchema = true;
+
+    /* scatter-gather 전체 대기 시간 */
+    private long queryTimeoutMs = 5000;
+
+    /* 0 이면 샤드 커넥션 풀 크기의 합 */
+    private int executorPoolSize;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,67 @@
+package study.querydsl.sql;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.ForeignKey;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * MEMBER 테이블 querydsl-sql 타입 (Member 엔티티가 매핑된 스키마)
+ * => querydsl-sql-codegen 출력과 같은 모양 , 스키마 생성을 hibernate ddl-auto 가 하므로 빌드 시점에 DB 가 없어 직접 작성
+ * => H2 는 따옴표 없는 이름을 대문자로 저장하므로 테이블 / 컬럼 이름도 대문자
+ * => Member 의 컬럼이 바뀌면 같이 수정해야 함 (MemberSqlRepositoryTest 가 JPA 결과와 비교)
+ */
+public class SMember extends RelationalPathBase<SMember> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final SMember member = new SMember("member");
+
+    public final NumberPath<Long> memberId = createNumber("memberId", Long.class);
+
+    public final NumberPath<Integer> age = createNumber("age", Integer.class);
+
+    public final StringPath grade = createString("grade");
+
+    public final StringPath mName = createString("mName");
+
+    public final StringPath username = createString("username");
+
+    public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+    public final PrimaryKey<SMember> primary = createPrimaryKey(memberId);
+
+    public final ForeignKey<STeam> teamFk = createForeignKey(teamId, "TEAM_ID");
+
+    public SMember(String variable) {
+        super(SMember.class, forVariable(variable), "PUBLIC", "MEMBER");
+        addMetadata();
+    }
+
+    public SMember(Path<? extends SMember> path) {
+        super(path.getType(), path.getMetadata(), "PUBLIC", "MEMBER");
+        addMetadata();
+    }
+
+    public SMember(PathMetadata metadata) {
+        super(SMember.class, metadata, "PUBLIC", "MEMBER");
+        addMetadata();
+    }
+
+    public void addMetadata() {
+        addMetadata(memberId, ColumnMetadata.named("MEMBER_ID").withIndex(1).ofType(Types.BIGINT).withSize(64).notNull());
+        addMetadata(age, ColumnMetadata.named("AGE").withIndex(2).ofType(Types.INTEGER).withSize(32).notNull());
+        addMetadata(grade, ColumnMetadata.named("GRADE").withIndex(3).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(mName, ColumnMetadata.named("M_NAME").withIndex(4).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(username, ColumnMetadata.named("USERNAME").withIndex(5).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(teamId, ColumnMetadata.named("TEAM_ID").withIndex(6).ofType(Types.BIGINT).withSize(64));
+    }
+}
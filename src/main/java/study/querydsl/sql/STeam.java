@@ -0,0 +1,67 @@
+package study.querydsl.sql;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.ForeignKey;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * TEAM 테이블 querydsl-sql 타입 (Team + BaseEntity 컬럼)
+ * => SMember 와 같이 직접 작성
+ */
+public class STeam extends RelationalPathBase<STeam> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final STeam team = new STeam("team");
+
+    public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+    public final StringPath createdBy = createString("createdBy");
+
+    public final StringPath lastModifiedBy = createString("lastModifiedBy");
+
+    public final DateTimePath<Timestamp> modTime = createDateTime("modTime", Timestamp.class);
+
+    public final DateTimePath<Timestamp> regTime = createDateTime("regTime", Timestamp.class);
+
+    public final StringPath name = createString("name");
+
+    public final PrimaryKey<STeam> primary = createPrimaryKey(teamId);
+
+    public final ForeignKey<SMember> _memberTeamFk = createInvForeignKey(teamId, "TEAM_ID");
+
+    public STeam(String variable) {
+        super(STeam.class, forVariable(variable), "PUBLIC", "TEAM");
+        addMetadata();
+    }
+
+    public STeam(Path<? extends STeam> path) {
+        super(path.getType(), path.getMetadata(), "PUBLIC", "TEAM");
+        addMetadata();
+    }
+
+    public STeam(PathMetadata metadata) {
+        super(STeam.class, metadata, "PUBLIC", "TEAM");
+        addMetadata();
+    }
+
+    public void addMetadata() {
+        addMetadata(teamId, ColumnMetadata.named("TEAM_ID").withIndex(1).ofType(Types.BIGINT).withSize(64).notNull());
+        addMetadata(createdBy, ColumnMetadata.named("CREATED_BY").withIndex(2).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(lastModifiedBy, ColumnMetadata.named("LAST_MODIFIED_BY").withIndex(3).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(modTime, ColumnMetadata.named("MOD_TIME").withIndex(4).ofType(Types.TIMESTAMP).withSize(26).withDigits(6));
+        addMetadata(regTime, ColumnMetadata.named("REG_TIME").withIndex(5).ofType(Types.TIMESTAMP).withSize(26).withDigits(6));
+        addMetadata(name, ColumnMetadata.named("NAME").withIndex(6).ofType(Types.VARCHAR).withSize(255));
+    }
+}
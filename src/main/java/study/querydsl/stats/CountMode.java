@@ -0,0 +1,11 @@
+package study.querydsl.stats;
+
+/**
+ * count 조회 방식
+ */
+public enum CountMode {
+    /* 매번 select count (트랜잭션 안에서 아직 커밋하지 않은 변경도 반영) */
+    EXACT,
+    /* 메모리 카운터 (커밋된 변경만 증분 반영 + 주기적 보정) , 아직 로딩 전이면 EXACT 와 같음 */
+    APPROXIMATE
+}
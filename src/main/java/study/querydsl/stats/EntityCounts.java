@@ -0,0 +1,133 @@
+package study.querydsl.stats;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.replication.PrimaryReads;
+import study.querydsl.repository.support.BulkChangeEvent;
+
+import java.util.OptionalLong;
+
+import javax.persistence.EntityManager;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 전체 회원 수 / 전체 팀 수 메모리 카운터 (CountMode.APPROXIMATE)
+ * => 목록 화면마다 실행되는 select count 전체 스캔 대신 카운터 조회
+ * => 팀별 회원 수는 TeamStatisticsView 의 팀 통계 (count) 를 그대로 사용
+ * => insert / delete 는 커밋 후 증분 반영 (ReadModelEventListener)
+ * => JPQL 벌크 삭제는 커밋 후 BulkChangeEvent 의 행 수만큼 뺌 (벌크 수정은 전체 수가 그대로이므로 무시)
+ * => 시작할 때 한 번 , 이후 counts.reconcile-interval-ms 마다 DB 에서 다시 세서 어긋난 값 보정
+ *    (커밋과 커밋 후 콜백 사이에 세면 그 변경이 한 번 더 반영될 수 있음 => 다음 보정에서 맞춰짐)
+ *    replica 가 있어도 primary 에서 셈 (PrimaryReads)
+ */
+@Slf4j
+@Component
+public class EntityCounts {
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate readTransaction;
+    private final TeamStatisticsView teamStatistics;
+
+    private final ReconcilingCounter members = new ReconcilingCounter();
+    private final ReconcilingCounter teams = new ReconcilingCounter();
+    private volatile boolean loaded;
+
+    public EntityCounts(EntityManager em, PlatformTransactionManager transactionManager,
+                        TeamStatisticsView teamStatistics) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.teamStatistics = teamStatistics;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // 커밋 후 콜백 안에서도 새 트랜잭션으로 조회
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 아직 한 번도 세지 않았으면 empty => 호출하는 쪽에서 select count
+     */
+    public OptionalLong members() {
+        return loaded ? OptionalLong.of(members.get()) : OptionalLong.empty();
+    }
+
+    public OptionalLong teams() {
+        return loaded ? OptionalLong.of(teams.get()) : OptionalLong.empty();
+    }
+
+    /**
+     * 팀 통계에 없는 팀 (아직 재계산 전 , 없는 팀) 이면 empty => 호출하는 쪽에서 select count
+     */
+    public OptionalLong membersOfTeam(Long teamId) {
+        return teamStatistics.get(teamId)
+                .map(statistics -> OptionalLong.of(statistics.getCount()))
+                .orElseGet(OptionalLong::empty);
+    }
+
+    void memberAdded() {
+        members.add(1);
+    }
+
+    void memberRemoved() {
+        members.add(-1);
+    }
+
+    void teamAdded() {
+        teams.add(1);
+    }
+
+    void teamRemoved() {
+        teams.add(-1);
+    }
+
+    /**
+     * DB 에서 다시 세서 보정 (팀 수 count 한 번 + 회원 수 count 한 번)
+     * => 세기 전 값을 기억해 두고 그 사이 들어온 증분은 DB 값 위에 다시 얹음 (ReconcilingCounter)
+     * => 모든 카운터를 보정한 뒤에야 loaded (그 전까지 APPROXIMATE 도 select count)
+     */
+    @Scheduled(fixedDelayString = "${counts.reconcile-interval-ms:300000}",
+            initialDelayString = "${counts.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        long membersSnapshot = members.snapshot();
+        long teamsSnapshot = teams.snapshot();
+
+        long[] counted = PrimaryReads.call(() -> readTransaction.execute(status -> new long[]{
+                queryFactory.select(member.count()).from(member).fetchOne(),
+                queryFactory.select(team.count()).from(team).fetchOne()
+        }));
+
+        long drift = Math.abs(members.reconcile(counted[0], membersSnapshot))
+                + Math.abs(teams.reconcile(counted[1], teamsSnapshot));
+        if (loaded && drift != 0) {
+            log.warn("count 보정 : 차이 합계 {} (members={}, teams={})", drift, counted[0], counted[1]);
+        }
+        loaded = true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(BulkChangeEvent event) {
+        if (event.getOperation() != BulkChangeEvent.Operation.DELETE) {
+            return;
+        }
+        if (event.getEntityType() == Member.class) {
+            members.add(-event.getRows());
+        } else if (event.getEntityType() == Team.class) {
+            teams.add(-event.getRows());
+        }
+    }
+}
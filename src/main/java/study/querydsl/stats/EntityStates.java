@@ -0,0 +1,37 @@
+package study.querydsl.stats;
+
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import study.querydsl.entity.Team;
+
+/**
+ * hibernate 이벤트의 state 배열에서 Member / Team 값 꺼내기 (엔티티 , 지연 로딩 없이)
+ */
+final class EntityStates {
+
+    private EntityStates() {
+    }
+
+    static int ageOf(Object[] state, EntityPersister persister) {
+        Object age = state[persister.getEntityMetamodel().getPropertyIndex("age")];
+        return age != null ? (Integer) age : 0;
+    }
+
+    static String nameOf(Object[] state, EntityPersister persister) {
+        return (String) state[persister.getEntityMetamodel().getPropertyIndex("name")];
+    }
+
+    /**
+     * 팀 프록시를 초기화하지 않고 id 만 꺼냄
+     */
+    static Long teamIdOf(Object[] state, EntityPersister persister) {
+        Object team = state[persister.getEntityMetamodel().getPropertyIndex("team")];
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+}
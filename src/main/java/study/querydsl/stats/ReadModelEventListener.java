@@ -0,0 +1,117 @@
+package study.querydsl.stats;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Objects;
+
+import static study.querydsl.stats.EntityStates.ageOf;
+import static study.querydsl.stats.EntityStates.nameOf;
+import static study.querydsl.stats.EntityStates.teamIdOf;
+
+/**
+ * 커밋된 Member / Team 변경을 읽기 모델에 증분 반영 (hibernate POST_COMMIT 이벤트)
+ * => TeamStatisticsView : 팀별 회원 수 / 나이 통계 , EntityCounts : 전체 회원 수 / 팀 수
+ * => 변경 전 / 후 값은 엔티티가 아니라 이벤트의 state 배열에서 읽음 (지연 로딩 없음)
+ */
+@Component
+public class ReadModelEventListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+    private final TeamStatisticsView view;
+    private final EntityCounts counts;
+
+    public ReadModelEventListener(EntityManagerFactory emf, TeamStatisticsView view, EntityCounts counts) {
+        this.emf = emf;
+        this.view = view;
+        this.counts = counts;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            counts.memberAdded();
+            view.memberAdded(teamIdOf(event.getState(), event.getPersister()), ageOf(event.getState(), event.getPersister()));
+        } else if (event.getEntity() instanceof Team) {
+            counts.teamAdded();
+            view.teamSaved((Long) event.getId(), nameOf(event.getState(), event.getPersister()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Object[] oldState = event.getOldState();
+            if (oldState == null) {
+                // 변경 전 값을 모르면 (준영속 엔티티 update 등) 증분 반영 불가
+                view.rebuild();
+                return;
+            }
+            EntityPersister persister = event.getPersister();
+            Long oldTeamId = teamIdOf(oldState, persister);
+            Long newTeamId = teamIdOf(event.getState(), persister);
+            int oldAge = ageOf(oldState, persister);
+            int newAge = ageOf(event.getState(), persister);
+            if (!Objects.equals(oldTeamId, newTeamId) || oldAge != newAge) {
+                view.memberRemoved(oldTeamId, oldAge);
+                view.memberAdded(newTeamId, newAge);
+            }
+        } else if (event.getEntity() instanceof Team) {
+            view.teamSaved((Long) event.getId(), nameOf(event.getState(), event.getPersister()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            counts.memberRemoved();
+            view.memberRemoved(teamIdOf(event.getDeletedState(), event.getPersister()),
+                    ageOf(event.getDeletedState(), event.getPersister()));
+        } else if (event.getEntity() instanceof Team) {
+            counts.teamRemoved();
+            view.teamRemoved((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+}
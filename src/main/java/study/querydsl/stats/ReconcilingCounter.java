@@ -0,0 +1,36 @@
+package study.querydsl.stats;
+
+/**
+ * 증분 반영 + DB 에서 다시 센 값으로 보정하는 카운터
+ * => 세기 전 값 (snapshot) 을 기억해 두고 보정할 때 그 사이 증분을 DB 값 위에 다시 얹음
+ *    value = DB 값 + (현재 값 - 세기 전 값)
+ * => 세는 도중 증분이 계속 들어와도 보정이 건너뛰어지지 않음
+ *    (세기 전에 커밋됐지만 콜백이 세기 시작 후에 온 증분은 한 번 더 반영될 수 있음 => 다음 보정에서 맞춰짐)
+ */
+final class ReconcilingCounter {
+
+    private long value;
+
+    synchronized long get() {
+        return value;
+    }
+
+    synchronized void add(long delta) {
+        value += delta;
+    }
+
+    /**
+     * 세기 직전에 호출
+     */
+    synchronized long snapshot() {
+        return value;
+    }
+
+    /**
+     * @return 보정한 차이 (DB - 세기 전 메모리 값)
+     */
+    synchronized long reconcile(long actual, long snapshot) {
+        value = actual + (value - snapshot);
+        return actual - snapshot;
+    }
+}
@@ -0,0 +1,126 @@
+package study.querydsl.stats;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 팀 하나의 나이 분포 (나이 => 회원 수)
+ * => 삭제가 있어도 min / max 를 다시 스캔하지 않고 유지할 수 있음
+ * => 변경은 TeamStatisticsView 가 이 객체로 동기화해서 하고 , 읽기는 volatile 스냅샷만 봄
+ * => 재계산은 객체를 바꾸지 않고 보정 (ReconcilingCounter 와 같은 방식 , 나이별로)
+ *    나이별 회원 수 = DB 값 + (현재 값 - 세기 전 값)
+ */
+class TeamAgeHistogram {
+
+    private final Long teamId;
+    private final TreeMap<Integer, Long> ages = new TreeMap<>();
+    private String teamName;
+    private long count;
+    private long sum;
+    private volatile TeamStatistics snapshot;
+
+    TeamAgeHistogram(Long teamId, String teamName) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.snapshot = new TeamStatistics(teamId, teamName, 0, 0, null, null);
+    }
+
+    synchronized void add(int age, long members) {
+        ages.merge(age, members, Long::sum);
+        count += members;
+        sum += (long) age * members;
+        publish();
+    }
+
+    synchronized void remove(int age) {
+        Long current = ages.get(age);
+        if (current == null) {
+            // 뷰와 DB 가 어긋난 경우 (verify 로 확인 후 rebuild)
+            return;
+        }
+        if (current == 1) {
+            ages.remove(age);
+        } else {
+            ages.put(age, current - 1);
+        }
+        count--;
+        sum -= age;
+        publish();
+    }
+
+    synchronized void rename(String teamName) {
+        this.teamName = teamName;
+        publish();
+    }
+
+    TeamStatistics snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * DB 에서 세기 직전에 호출
+     */
+    synchronized Checkpoint checkpoint() {
+        return new Checkpoint(teamName, new HashMap<>(ages));
+    }
+
+    /**
+     * 세는 동안 들어온 증분을 DB 값 (loaded) 위에 다시 얹음
+     * => 이름은 그 사이 바뀌지 않았을 때만 DB 값으로
+     * => 세기 전에 커밋됐지만 콜백이 늦게 온 증분은 한 번 더 반영될 수 있음 (0 이하가 된 나이는 뺌 , 다음 재계산에서 맞춰짐)
+     */
+    synchronized void reconcile(TeamAgeHistogram loaded, Checkpoint checkpoint) {
+        Set<Integer> keys = new HashSet<>(loaded.ages.keySet());
+        keys.addAll(ages.keySet());
+        keys.addAll(checkpoint.ages.keySet());
+
+        count = 0;
+        sum = 0;
+        for (Integer age : keys) {
+            long members = loaded.ages.getOrDefault(age, 0L)
+                    + ages.getOrDefault(age, 0L) - checkpoint.ages.getOrDefault(age, 0L);
+            if (members > 0) {
+                ages.put(age, members);
+                count += members;
+                sum += (long) age * members;
+            } else {
+                ages.remove(age);
+            }
+        }
+        if (Objects.equals(teamName, checkpoint.teamName)) {
+            teamName = loaded.teamName;
+        }
+        publish();
+    }
+
+    private void publish() {
+        snapshot = ages.isEmpty()
+                ? new TeamStatistics(teamId, teamName, 0, 0, null, null)
+                : new TeamStatistics(teamId, teamName, count, sum, ages.firstKey(), ages.lastKey());
+    }
+
+    static TeamAgeHistogram of(Long teamId, String teamName, Map<Integer, Long> ages) {
+        TeamAgeHistogram histogram = new TeamAgeHistogram(teamId, teamName);
+        for (Map.Entry<Integer, Long> entry : ages.entrySet()) {
+            histogram.add(entry.getKey(), entry.getValue());
+        }
+        return histogram;
+    }
+
+    static final class Checkpoint {
+        static final Checkpoint EMPTY = new Checkpoint(null, Collections.emptyMap());
+
+        private final String teamName;
+        private final Map<Integer, Long> ages;
+
+        private Checkpoint(String teamName, Map<Integer, Long> ages) {
+            this.teamName = teamName;
+            this.ages = ages;
+        }
+    }
+}
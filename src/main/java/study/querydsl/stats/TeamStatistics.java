@@ -0,0 +1,28 @@
+package study.querydsl.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 팀별 회원 나이 통계 (불변 스냅샷)
+ * => 회원이 없으면 count 0 , avg / min / max 는 null
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class TeamStatistics {
+
+    private final Long teamId;
+    private final String teamName;
+    private final long count;
+    private final long sum;
+    private final Integer min;
+    private final Integer max;
+
+    public Double getAvg() {
+        return count == 0 ? null : (double) sum / count;
+    }
+}
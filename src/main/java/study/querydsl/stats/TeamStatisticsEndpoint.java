@@ -0,0 +1,40 @@
+package study.querydsl.stats;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/teamstats : 팀 통계 전체
+ * POST /actuator/teamstats {"command":"verify"} : DB 와 비교 , {"command":"rebuild"} : 재계산 후 비교 결과
+ */
+@Component
+@Endpoint(id = "teamstats")
+public class TeamStatisticsEndpoint {
+
+    private final TeamStatisticsView view;
+
+    public TeamStatisticsEndpoint(TeamStatisticsView view) {
+        this.view = view;
+    }
+
+    @ReadOperation
+    public List<TeamStatistics> teamStatistics() {
+        return view.getAll();
+    }
+
+    @WriteOperation
+    public List<String> command(String command) {
+        if ("rebuild".equals(command)) {
+            view.rebuild();
+            return view.verify();
+        }
+        if ("verify".equals(command)) {
+            return view.verify();
+        }
+        throw new IllegalArgumentException("지원하지 않는 명령 : " + command);
+    }
+}
@@ -0,0 +1,209 @@
+package study.querydsl.stats;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.replication.PrimaryReads;
+import study.querydsl.repository.support.BulkChangeEvent;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀별 회원 나이 통계 (count / sum / avg / min / max) 읽기 모델
+ * group by 전체 스캔 대신 메모리에 팀 id => 통계를 유지하고 조회는 맵 조회 한 번
+ * => 회원 / 팀 insert , update (changeTeam , 나이 변경) , delete 는 커밋 후 증분 반영 (ReadModelEventListener)
+ * => JPQL 벌크 연산은 커밋 후 BulkChangeEvent 로 전체 재계산 (rebuild)
+ * => 시작할 때 한 번 , 이후 counts.reconcile-interval-ms 마다 rebuild (hibernate 를 거치지 않은 변경 보정)
+ *    재계산은 팀별 히스토그램을 제자리에서 보정하므로 도중에 커밋된 증분을 잃지 않고
+ *    조회하는 쪽에서 팀이 잠시 사라져 보이지도 않음 (세기 직전에 커밋된 증분은 두 번 반영될 수 있으므로 verify 로 확인)
+ * => 뷰에 없는 팀의 회원 이벤트가 오면 팀 이름을 읽어서 추가 (팀이 이미 없으면 반영하지 않음 , 다음 rebuild 에서 채움)
+ * => 조회는 replica 가 있어도 primary (PrimaryReads) , 커밋 직후 (POST_COMMIT) 의 팀 이름 조회도 방금 커밋된 팀을 봐야 함
+ */
+@Slf4j
+@Component
+public class TeamStatisticsView {
+
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate readTransaction;
+    private final ConcurrentMap<Long, TeamAgeHistogram> teams = new ConcurrentHashMap<>();
+
+    public TeamStatisticsView(EntityManager em, PlatformTransactionManager transactionManager) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // 커밋 후 콜백 (afterCommit) 안에서도 새 트랜잭션으로 조회
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<TeamStatistics> get(Long teamId) {
+        TeamAgeHistogram histogram = teams.get(teamId);
+        return histogram != null ? Optional.of(histogram.snapshot()) : Optional.empty();
+    }
+
+    public List<TeamStatistics> getAll() {
+        List<TeamStatistics> result = new ArrayList<>(teams.size());
+        for (TeamAgeHistogram histogram : teams.values()) {
+            result.add(histogram.snapshot());
+        }
+        result.sort(Comparator.comparing(TeamStatistics::getTeamName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(TeamStatistics::getTeamId));
+        return result;
+    }
+
+    void memberAdded(Long teamId, int age) {
+        if (teamId == null) {
+            return;
+        }
+        TeamAgeHistogram histogram = teams.get(teamId);
+        if (histogram == null) {
+            histogram = loadHistogram(teamId);
+        }
+        if (histogram != null) {
+            histogram.add(age, 1);
+        }
+    }
+
+    /**
+     * 뷰에 없는 팀이면 뺄 것도 없음
+     */
+    void memberRemoved(Long teamId, int age) {
+        TeamAgeHistogram histogram = teamId != null ? teams.get(teamId) : null;
+        if (histogram != null) {
+            histogram.remove(age);
+        }
+    }
+
+    void teamSaved(Long teamId, String name) {
+        teams.computeIfAbsent(teamId, id -> new TeamAgeHistogram(id, name)).rename(name);
+    }
+
+    void teamRemoved(Long teamId) {
+        teams.remove(teamId);
+    }
+
+    /**
+     * DB 에서 전체 재계산 (팀 x 나이 group by 한 번)
+     * => 세기 전 상태를 팀마다 기억해 두고 (checkpoint) 센 뒤 그 사이 증분을 DB 값 위에 얹음 (EntityCounts.reconcile 과 같은 방식)
+     * => 세기 전에 뷰에 있었는데 DB 에 없는 팀만 뺌 (세는 도중 추가된 팀은 남김)
+     */
+    @Scheduled(fixedDelayString = "${counts.reconcile-interval-ms:300000}",
+            initialDelayString = "${counts.reconcile-interval-ms:300000}")
+    public synchronized void rebuild() {
+        Map<Long, TeamAgeHistogram.Checkpoint> checkpoints = new HashMap<>();
+        teams.forEach((teamId, histogram) -> checkpoints.put(teamId, histogram.checkpoint()));
+
+        Map<Long, TeamAgeHistogram> fresh = load();
+
+        for (Map.Entry<Long, TeamAgeHistogram> entry : fresh.entrySet()) {
+            TeamAgeHistogram loaded = entry.getValue();
+            teams.computeIfAbsent(entry.getKey(), id -> new TeamAgeHistogram(id, loaded.snapshot().getTeamName()))
+                    .reconcile(loaded, checkpoints.getOrDefault(entry.getKey(), TeamAgeHistogram.Checkpoint.EMPTY));
+        }
+        for (Long teamId : checkpoints.keySet()) {
+            if (!fresh.containsKey(teamId)) {
+                teams.remove(teamId);
+            }
+        }
+        log.info("팀 통계 재계산 : {} 팀", fresh.size());
+    }
+
+    /**
+     * 뷰와 DB 의 group by 결과 비교
+     * @return 어긋난 팀 설명 (비어 있으면 일치)
+     */
+    public List<String> verify() {
+        Map<Long, TeamAgeHistogram> expected = load();
+        Set<Long> teamIds = new HashSet<>(expected.keySet());
+        teamIds.addAll(teams.keySet());
+
+        List<String> mismatches = new ArrayList<>();
+        for (Long teamId : teamIds) {
+            TeamStatistics db = expected.containsKey(teamId) ? expected.get(teamId).snapshot() : null;
+            TeamStatistics view = get(teamId).orElse(null);
+            if (!Objects.equals(db, view)) {
+                mismatches.add("teamId=" + teamId + " db=" + db + " view=" + view);
+            }
+        }
+        return mismatches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(BulkChangeEvent event) {
+        if (event.getEntityType() == Member.class || event.getEntityType() == Team.class) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 팀 이름을 읽어서 빈 히스토그램 추가 (팀이 없으면 null)
+     * => 맵 갱신 (computeIfAbsent) 안에서 조회하지 않도록 먼저 읽음
+     */
+    private TeamAgeHistogram loadHistogram(Long teamId) {
+        List<String> names = PrimaryReads.call(() -> readTransaction.execute(status -> queryFactory
+                .select(team.name)
+                .from(team)
+                .where(team.id.eq(teamId))
+                .fetch()));
+        if (names == null || names.isEmpty()) {
+            return null;
+        }
+        return teams.computeIfAbsent(teamId, id -> new TeamAgeHistogram(id, names.get(0)));
+    }
+
+    private Map<Long, TeamAgeHistogram> load() {
+        List<Tuple> rows = PrimaryReads.call(() -> readTransaction.execute(status -> queryFactory
+                .select(team.id, team.name, member.age, member.count())
+                .from(team)
+                .leftJoin(team.members, member)
+                .groupBy(team.id, team.name, member.age)
+                .fetch()));
+
+        Map<Long, String> names = new HashMap<>();
+        Map<Long, Map<Integer, Long>> ages = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            Long teamId = row.get(team.id);
+            names.put(teamId, row.get(team.name));
+            Map<Integer, Long> teamAges = ages.computeIfAbsent(teamId, id -> new HashMap<>());
+            Integer age = row.get(member.age);
+            if (age != null) {
+                teamAges.put(age, row.get(member.count()));
+            }
+        }
+
+        Map<Long, TeamAgeHistogram> result = new HashMap<>();
+        for (Map.Entry<Long, Map<Integer, Long>> entry : ages.entrySet()) {
+            result.put(entry.getKey(), TeamAgeHistogram.of(entry.getKey(), names.get(entry.getKey()), entry.getValue()));
+        }
+        return result;
+    }
+}
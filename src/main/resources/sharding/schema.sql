@@ -0,0 +1,28 @@
+-- 샤드 스키마 (Member / Team 엔티티와 같은 컬럼 , SMember / STeam 으로 조회)
+-- team 은 모든 샤드에 같은 id 로 복제 , member 는 team_id 기준으로 한 샤드에만
+create sequence if not exists team_seq start with 1 increment by 1;
+create sequence if not exists member_seq start with 1 increment by 1;
+
+create table if not exists team (
+    team_id bigint not null primary key,
+    created_by varchar(255),
+    last_modified_by varchar(255),
+    mod_time timestamp(6),
+    reg_time timestamp(6),
+    name varchar(255)
+);
+
+create table if not exists member (
+    member_id bigint not null primary key,
+    age integer not null,
+    grade varchar(255),
+    m_name varchar(255),
+    username varchar(255),
+    team_id bigint,
+    constraint fk_member_team foreign key (team_id) references team (team_id)
+);
+
+create index if not exists idx_team_name on team (name);
+create index if not exists idx_member_username on member (username);
+create index if not exists idx_member_age on member (age);
+create index if not exists idx_member_team on member (team_id);
@@ -0,0 +1,47 @@
+package study.querydsl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 실제로 커밋해야 확인할 수 있는 테스트의 공통 기반
+ * => 커밋 후 리스너 (통계 , 카운트 , 감사 로그) , 커밋된 데이터만 보는 스냅샷 , 별도 스레드 / 청크 트랜잭션 등
+ * => 테스트 트랜잭션 (@Transactional 롤백) 없이 tx 로 직접 커밋하고 , 남은 데이터는 각 테스트의 @AfterEach 에서 직접 정리
+ */
+@SpringBootTest
+public abstract class CommittingTestSupport {
+    @Autowired
+    protected EntityManager em;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    protected TransactionTemplate tx;
+
+    /**
+     * 하위 클래스의 @BeforeEach 보다 먼저 실행됨
+     */
+    @BeforeEach
+    public void openTransactionTemplate() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 팀과 그 팀의 회원을 JDBC 로 삭제 (hibernate 를 거치지 않으므로 커밋 후 리스너가 돌지 않음)
+     */
+    protected void deleteTeams(Long... teamIds) {
+        for (Long teamId : teamIds) {
+            jdbcTemplate.update("delete from member where team_id = ?", teamId);
+            jdbcTemplate.update("delete from team where team_id = ?", teamId);
+        }
+    }
+}
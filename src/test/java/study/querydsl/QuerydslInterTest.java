@@ -14,9 +14,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.MemberDtoProjection;
 import study.querydsl.dto.MemeberSearchDto;
 import study.querydsl.dto.QMemberDto;
 import study.querydsl.dto.UserDto;
+import study.querydsl.dto.UserDtoProjection;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
@@ -28,6 +30,7 @@ import javax.transaction.Transactional;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static study.querydsl.entity.QMember.member;
 
 @SpringBootTest
@@ -194,6 +197,59 @@ public class QuerydslInterTest {
         }
     }
 
+    /**
+     * 4. @GenerateProjection 으로 생성된 프로젝션
+     * => Projections.bean 처럼 별칭으로 매핑하지만 리플렉션 없이 setter 직접 호출
+     */
+    @Test
+    public void findDtoByGeneratedProjection() {
+        List<MemberDto> result = queryFactory
+                .select(MemberDtoProjection.of(member.username, member.age))
+                .from(member)
+                .orderBy(member.id.asc())
+                .fetch();
+
+        List<MemberDto> bean = queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .orderBy(member.id.asc())
+                .fetch();
+
+        assertThat(result).isEqualTo(bean);
+    }
+
+    /**
+     * 기본 생성자가 없는 UserDto 는 생성자로 , 별칭 / 서브쿼리 별칭도 그대로 사용
+     */
+    @Test
+    public void findUserDtoByGeneratedProjection() {
+        QMember memberSub = new QMember("memberSub");
+
+        List<UserDto> result = queryFactory
+                .select(UserDtoProjection.of(
+                        member.username.as("name"),
+                        ExpressionUtils.as(JPAExpressions
+                                .select(memberSub.age.max())
+                                .from(memberSub), "age")
+                ))
+                .from(member)
+                .orderBy(member.id.asc())
+                .fetch();
+
+        assertThat(result).extracting("name").containsExactly("member1", "member2", "member3", "member4");
+        assertThat(result).extracting("age").containsOnly(40);
+    }
+
+    /**
+     * DTO 에 없는 이름은 행을 읽기 전에 (프로젝션을 만들 때) 실패
+     */
+    @Test
+    public void generatedProjectionRejectsUnknownProperty() {
+        assertThatThrownBy(() -> MemberDtoProjection.of(member.username, member.id))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("id");
+    }
+
     /**
      * 동적쿼리 해결하는 방법
      * 1. BooleanBuilder
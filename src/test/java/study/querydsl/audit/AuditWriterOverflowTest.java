@@ -0,0 +1,96 @@
+package study.querydsl.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.CommittingTestSupport;
+import study.querydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 큐가 가득 차면 (BLOCK) 커밋 직후 호출 스레드에서 직접 저장
+ * => 큐 1 칸 , 대기 없음 , 워커는 넘칠 때만 깨어나므로 한 트랜잭션의 이력 3 건 중 적어도 1 건은 호출 스레드가 저장
+ */
+@SpringBootTest(properties = {
+        "audit.queue-capacity=1",
+        "audit.offer-timeout-ms=0",
+        "audit.flush-interval-ms=60000",
+        "audit.overflow=BLOCK"
+})
+class AuditWriterOverflowTest extends CommittingTestSupport {
+    @Autowired
+    AuditWriter auditWriter;
+
+    List<Long> memberIds = new ArrayList<>();
+
+    @AfterEach
+    public void after() {
+        for (Long memberId : memberIds) {
+            jdbcTemplate.update("delete from member where member_id = ?", memberId);
+            jdbcTemplate.update("delete from audit_log where entity_type = 'Member' and entity_id = ?", memberId);
+        }
+    }
+
+    /**
+     * 호출 스레드에서 저장한 이력도 커밋되어 있어야 함 (끝난 트랜잭션의 커넥션에 쓰면 반환 시 롤백됨)
+     */
+    @Test
+    public void overflowOnCallerIsCommitted() {
+        long writtenOnCallerBefore = auditWriter.getWrittenOnCaller();
+
+        memberIds.addAll(tx.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Member member = new Member("overflow" + i, 10);
+                em.persist(member);
+                ids.add(member.getId());
+            }
+            return ids;
+        }));
+
+        long writtenOnCaller = auditWriter.getWrittenOnCaller() - writtenOnCallerBefore;
+        assertThat(writtenOnCaller).isPositive();
+        assertThat(auditWriter.getFailed()).isZero();
+        assertThat(auditLogCount()).isGreaterThanOrEqualTo(writtenOnCaller);
+
+        auditWriter.flush();
+        assertThat(auditLogCount()).isEqualTo(3);
+    }
+
+    /**
+     * 호출 스레드의 저장은 호출 스레드에 바인딩된 트랜잭션 (커넥션) 과 상관없이 따로 커밋
+     */
+    @Test
+    public void overflowOnCallerDoesNotJoinCallerTransaction() {
+        memberIds.add(-1L);
+        long writtenOnCallerBefore = auditWriter.getWrittenOnCaller();
+
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("select 1", Integer.class); // 커넥션을 트랜잭션에 바인딩
+            for (int i = 0; i < 3; i++) {
+                auditWriter.submit(new AuditRecord("Member", -1L, AuditRecord.Action.INSERT, "overflow" + i));
+            }
+            status.setRollbackOnly();
+        });
+        long writtenOnCaller = auditWriter.getWrittenOnCaller() - writtenOnCallerBefore;
+
+        assertThat(writtenOnCaller).isPositive();
+        assertThat(auditLogCount()).isGreaterThanOrEqualTo(writtenOnCaller);
+        auditWriter.flush();
+        assertThat(auditLogCount()).isEqualTo(3);
+    }
+
+    private long auditLogCount() {
+        List<Long> counts = new ArrayList<>();
+        for (Long memberId : memberIds) {
+            counts.add(jdbcTemplate.queryForObject(
+                    "select count(*) from audit_log where entity_type = 'Member' and entity_id = ?", Long.class, memberId));
+        }
+        return counts.stream().mapToLong(Long::longValue).sum();
+    }
+}
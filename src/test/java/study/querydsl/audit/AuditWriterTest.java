@@ -0,0 +1,84 @@
+package study.querydsl.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.querydsl.CommittingTestSupport;
+import study.querydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 감사 로그는 커밋 후에 기록됨
+ */
+class AuditWriterTest extends CommittingTestSupport {
+    @Autowired
+    AuditWriter auditWriter;
+
+    Long memberId;
+
+    @AfterEach
+    public void after() {
+        if (memberId != null) {
+            jdbcTemplate.update("delete from member where member_id = ?", memberId);
+            jdbcTemplate.update("delete from audit_log where entity_type = 'Member' and entity_id = ?", memberId);
+        }
+    }
+
+    /**
+     * insert / update / delete 가 순서대로 기록되어야 함
+     */
+    @Test
+    public void recordsCommittedChanges() {
+        memberId = tx.execute(status -> {
+            Member member = new Member("audited", 10);
+            em.persist(member);
+            return member.getId();
+        });
+        tx.executeWithoutResult(status -> em.find(Member.class, memberId).setAge(11));
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, memberId)));
+        auditWriter.flush();
+
+        assertThat(actionsOf(memberId)).containsExactly("INSERT", "UPDATE", "DELETE");
+    }
+
+    /**
+     * 롤백된 변경은 기록하지 않음
+     */
+    @Test
+    public void ignoresRolledBackChanges() {
+        memberId = tx.execute(status -> {
+            Member member = new Member("rolledBack", 10);
+            em.persist(member);
+            em.flush();
+            status.setRollbackOnly();
+            return member.getId();
+        });
+        auditWriter.flush();
+
+        assertThat(actionsOf(memberId)).isEmpty();
+    }
+
+    @Test
+    public void boundedQueueRejectsWhenFull() {
+        BoundedAuditQueue queue = new BoundedAuditQueue(2);
+        AuditRecord record = new AuditRecord("Member", 1L, AuditRecord.Action.INSERT, "");
+
+        assertThat(queue.offer(record)).isTrue();
+        assertThat(queue.offer(record)).isTrue();
+        assertThat(queue.offer(record)).isFalse();
+
+        List<AuditRecord> batch = new ArrayList<>();
+        assertThat(queue.drainTo(batch, 10)).isEqualTo(2);
+        assertThat(queue.offer(record)).isTrue();
+    }
+
+    private List<String> actionsOf(Long id) {
+        return jdbcTemplate.queryForList(
+                "select action from audit_log where entity_type = 'Member' and entity_id = ? order by audit_log_id",
+                String.class, id);
+    }
+}
@@ -0,0 +1,36 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    /**
+     * 1ms ~ 100ms 를 고르게 넣으면 p50 ≈ 50ms , p99 ≈ 99ms (버킷 간격 약 19% 오차)
+     */
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.percentileMillis(0.5)).isCloseTo(50, within(10.0));
+        assertThat(histogram.percentileMillis(0.99)).isCloseTo(99, within(20.0));
+        assertThat(histogram.percentileMillis(1.0)).isEqualTo(100);
+        assertThat(histogram.getMaxMillis()).isEqualTo(100);
+    }
+
+    @Test
+    public void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.percentileMillis(0.99)).isZero();
+        assertThat(histogram.getMeanMillis()).isZero();
+    }
+}
@@ -0,0 +1,43 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.Optional;
+
+/**
+ * 테스트 메서드 (또는 클래스) 의 @MaxQueries 로 테스트 본문의 statement 수 확인
+ * => @BeforeEach 의 데이터 준비 쿼리는 세지 않음
+ * => p6spy 리스너가 등록되는 @SpringBootTest 에서만 동작
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        maxQueries(context).ifPresent(maxQueries -> context.getStore(NAMESPACE)
+                .put(QueryBudget.class, QueryBudget.open(context.getDisplayName(), maxQueries.value())));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getStore(NAMESPACE).remove(QueryBudget.class, QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        budget.close();
+        // 테스트 자체가 실패했으면 원래 실패를 그대로 보여줌
+        if (budget.isExceeded() && !context.getExecutionException().isPresent()
+                && maxQueries(context).map(MaxQueries::action).orElse(MaxQueries.Action.FAIL) == MaxQueries.Action.FAIL) {
+            throw new QueryBudgetExceededException(budget.describe());
+        }
+    }
+
+    private static Optional<MaxQueries> maxQueries(ExtensionContext context) {
+        Optional<MaxQueries> onMethod = AnnotationSupport.findAnnotation(context.getTestMethod(), MaxQueries.class);
+        return onMethod.isPresent() ? onMethod : AnnotationSupport.findAnnotation(context.getTestClass(), MaxQueries.class);
+    }
+}
@@ -0,0 +1,78 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryBudgetExtension.class)
+class QueryBudgetTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    List<Long> memberIds = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 4; i++) {
+            Member member = new Member("member" + i, 10 * i, i % 2 == 0 ? teamA : teamB);
+            em.persist(member);
+            memberIds.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * fetch join 이므로 팀 이름까지 읽어도 쿼리 1번 (첫 페이지라 count 생략)
+     */
+    @Test
+    @MaxQueries(1)
+    public void sliceWithTeamIsSingleQuery() {
+        List<Member> members = memberJpaRepository.findSliceWithTeam(null, PageRequest.of(0, 10)).getContent();
+        for (Member member : members) {
+            member.getTeam().getName();
+        }
+    }
+
+    /**
+     * 회원을 한 건씩 조회하면 예산을 넘기고 반복된 SQL 이 메시지에 포함
+     */
+    @Test
+    public void exceededBudgetReportsRepeatedSql() {
+        QueryBudget budget = QueryBudget.open("n+1", 2);
+        try {
+            for (Long id : memberIds) {
+                memberJpaRepository.find(id);
+            }
+        } finally {
+            budget.close();
+        }
+
+        assertThat(budget.isExceeded()).isTrue();
+        assertThat(budget.getCount()).isEqualTo(4);
+        assertThat(budget.describe()).contains("4 > 2").contains("4x select");
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class QueryMetricsTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    QueryMetrics queryMetrics;
+
+    @BeforeEach
+    public void before() {
+        Team team = new Team("TeamA");
+        em.persist(team);
+        em.persist(new Member("member1", 10, team));
+        em.persist(new Member("member2", 20, team));
+        em.flush();
+        em.clear();
+        queryMetrics.reset();
+    }
+
+    /**
+     * 리포지토리 메서드 안에서 실행된 SQL 이 SQL 별 / 메서드별로 함께 집계되어야 함
+     */
+    @Test
+    public void recordsPerSqlAndPerMethod() {
+        memberJpaRepository.findAll();
+
+        QueryStatsSnapshot method = find(queryMetrics.snapshot(QueryMetrics.METHOD, 50), "MemberJpaRepository.findAll");
+        assertThat(method.getCount()).isEqualTo(1);
+        assertThat(method.getStatements()).isEqualTo(1);
+        assertThat(method.getRows()).isEqualTo(2);
+
+        List<QueryStatsSnapshot> sql = queryMetrics.snapshot(QueryMetrics.SQL, 50);
+        assertThat(sql).anySatisfy(stats -> {
+            assertThat(stats.getKey()).containsIgnoringCase("from member");
+            assertThat(stats.getRows()).isEqualTo(2);
+        });
+    }
+
+    private static QueryStatsSnapshot find(List<QueryStatsSnapshot> snapshots, String key) {
+        return snapshots.stream()
+                .filter(stats -> stats.getKey().equals(key))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(key + " 없음 : " + snapshots));
+    }
+}
@@ -0,0 +1,42 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.transaction.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class SlowQueryAnalyzerTest {
+    @Autowired
+    SlowQueryAnalyzer analyzer;
+
+    /**
+     * 인덱스가 있는 username 조건은 전체 스캔이 아님
+     */
+    @Test
+    public void indexedColumnIsNotFullScan() {
+        ExplainResult result = analyzer.analyze(
+                "select m.member_id from member m where m.username = 'member1'");
+
+        assertThat(result.getFullScans()).doesNotContain("MEMBER");
+        assertThat(result.getPlan()).containsIgnoringCase("idx_member_username");
+    }
+
+    /**
+     * 인덱스가 없는 grade 조건은 전체 스캔 + Member.grade 인덱스 제안
+     */
+    @Test
+    public void suggestsIndexForScannedColumn() {
+        ExplainResult result = analyzer.analyze(
+                "select m.member_id from member m where m.grade = 'VIP'");
+
+        assertThat(result.getFullScans()).containsExactly("MEMBER");
+        assertThat(result.getSuggestions()).singleElement().asString()
+                .startsWith("Member.grade")
+                .contains("idx_member_grade");
+    }
+}
@@ -0,0 +1,180 @@
+package study.querydsl.replication;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.stats.EntityCounts;
+import study.querydsl.stats.TeamStatisticsView;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인메모리 H2 두 개를 primary / replica 로 사용 (복제는 없으므로 heartbeat 를 직접 기록)
+ */
+@SpringBootTest(properties = {
+        "replication.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "replication.replicas[0].name=replica",
+        "replication.replicas[0].url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "replication.replicas[0].username=sa",
+        "replication.max-lag-ms=1000",
+        "replication.lag-probe-interval-ms=3600000", // 테스트에서 직접 probe
+        "decorator.datasource.exclude-beans=dataSource"
+})
+class ReplicationRoutingTest {
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ReplicationDataSources dataSources;
+
+    @Autowired
+    ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    EntityCounts counts;
+
+    @Autowired
+    TeamStatisticsView teamStatistics;
+
+    JdbcTemplate replica;
+    TransactionTemplate readOnly;
+    TransactionTemplate write;
+
+    @BeforeEach
+    public void before() {
+        replica = new JdbcTemplate(dataSources.getReplicas().get("replica"));
+        replica.execute("create table if not exists replication_heartbeat (id int primary key, beat_time bigint not null)");
+        replicate(System.currentTimeMillis());
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        write = new TransactionTemplate(transactionManager);
+        ReadYourWrites.clear();
+    }
+
+    @AfterEach
+    public void after() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    public void readOnlyGoesToReplicaAndWriteToPrimary() {
+        assertThat(lagMonitor.getLagMillis()).containsKey("replica");
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-replica");
+        assertThat(databaseIn(write)).isEqualToIgnoringCase("routing-primary");
+        // 트랜잭션 밖은 primary
+        assertThat(database()).isEqualToIgnoringCase("routing-primary");
+    }
+
+    /**
+     * 허용 지연보다 뒤처진 replica 는 제외 => primary 로 읽음
+     */
+    @Test
+    public void laggingReplicaFallsBackToPrimary() {
+        // 기록한 어떤 beat 보다도 오래된 beat => 그 뒤로 복제가 멈춘 replica
+        replicate(0);
+
+        assertThat(lagMonitor.getLagMillis().get("replica")).isGreaterThan(lagMonitor.getMaxLagMillis());
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-primary");
+
+        replicate(System.currentTimeMillis());
+
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-replica");
+    }
+
+    /**
+     * primary 에 마지막으로 기록된 beat 까지 복제됐으면 그 beat 가 maxLagMs 보다 오래됐어도 지연 0
+     */
+    @Test
+    public void replicaHoldingLatestBeatIsCaughtUp() throws InterruptedException {
+        Thread.sleep(lagMonitor.getMaxLagMillis() + 100);
+
+        replicate(jdbcTemplate.queryForObject("select beat_time from replication_heartbeat where id = 1", Long.class));
+
+        assertThat(lagMonitor.getLagMillis().get("replica")).isZero();
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-replica");
+    }
+
+    /**
+     * 쓰기 트랜잭션이 커밋된 뒤 같은 스레드의 읽기는 primary , 고정이 풀리면 다시 replica
+     * => 고정은 커밋 시점부터 (커밋 전에는 고정되지 않음 , 롤백이면 고정하지 않음)
+     */
+    @Test
+    public void readYourWrites() {
+        write.executeWithoutResult(status -> {
+            database();
+            assertThat(ReadYourWrites.isPinned()).isFalse();
+        });
+
+        assertThat(ReadYourWrites.isPinned()).isTrue();
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-primary");
+
+        ReadYourWrites.clear();
+
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-replica");
+
+        write.executeWithoutResult(status -> {
+            database();
+            status.setRollbackOnly();
+        });
+
+        assertThat(ReadYourWrites.isPinned()).isFalse();
+    }
+
+    /**
+     * PrimaryReads 범위의 읽기 전용 트랜잭션은 primary
+     */
+    @Test
+    public void primaryReadsScopeGoesToPrimary() {
+        assertThat(PrimaryReads.call(() -> databaseIn(readOnly))).isEqualToIgnoringCase("routing-primary");
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-replica");
+    }
+
+    /**
+     * 읽기 모델 보정 / 재계산은 replica 를 쓸 수 있어도 primary 에서 셈
+     * => 이 테스트의 replica 에는 team / member 테이블이 없으므로 replica 로 가면 실패
+     */
+    @Test
+    public void readModelReconcileReadsPrimary() {
+        assertThat(databaseIn(readOnly)).isEqualToIgnoringCase("routing-replica");
+        jdbcTemplate.update("insert into team (team_id, name) values (?, ?)", -1L, "PrimaryOnly");
+        try {
+            counts.reconcile();
+            teamStatistics.rebuild();
+
+            assertThat(counts.teams()).hasValue(jdbcTemplate.queryForObject("select count(*) from team", Long.class));
+            assertThat(teamStatistics.get(-1L)).hasValueSatisfying(team -> assertThat(team.getTeamName()).isEqualTo("PrimaryOnly"));
+        } finally {
+            jdbcTemplate.update("delete from team where team_id = ?", -1L);
+            counts.reconcile();
+            teamStatistics.rebuild();
+        }
+    }
+
+    /**
+     * 복제 대신 replica 의 heartbeat 를 직접 기록하고 지연 측정
+     */
+    private void replicate(long beatTime) {
+        if (replica.update("update replication_heartbeat set beat_time = ? where id = 1", beatTime) == 0) {
+            replica.update("insert into replication_heartbeat (id, beat_time) values (1, ?)", beatTime);
+        }
+        lagMonitor.probe();
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+
+    private String databaseIn(TransactionTemplate template) {
+        return template.execute(status -> database());
+    }
+}
@@ -0,0 +1,63 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.CommittingTestSupport;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberAsyncRepository.MemberSearchResult;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 작업 스레드는 별도 트랜잭션이므로 테스트 데이터가 커밋되어 있어야 함
+ */
+class MemberAsyncRepositoryTest extends CommittingTestSupport {
+    @Autowired
+    MemberAsyncRepository memberAsyncRepository;
+
+    @BeforeEach
+    public void before() {
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("AsyncTeam");
+            em.persist(team);
+            for (int i = 0; i < 5; i++) {
+                em.persist(new Member("async" + i, 10 * i, team));
+            }
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'async%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name = 'AsyncTeam'").executeUpdate();
+        });
+    }
+
+    /**
+     * 페이지 내용 / count / 팀 통계가 모두 채워져야 함
+     */
+    @Test
+    public void searchWithTeamStats() throws Exception {
+        MemeberSearchDto condition = new MemeberSearchDto();
+        condition.setTeamName("AsyncTeam");
+
+        MemberSearchResult result = memberAsyncRepository
+                .searchWithTeamStats(condition, PageRequest.of(0, 2))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result.getMembers().getContent()).hasSize(2);
+        assertThat(result.getMembers().getTotalElements()).isEqualTo(5);
+        assertThat(result.getTeamStats())
+                .filteredOn(stat -> "AsyncTeam".equals(stat.getTeamName()))
+                .extracting("memberCount")
+                .containsExactly(5L);
+    }
+}
@@ -0,0 +1,244 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.metrics.QueryBudget;
+import study.querydsl.repository.support.KeysetPage;
+import study.querydsl.repository.support.StreamingSupport;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class MemberJpaRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        memberJpaRepository.save(new Member("member1", 10, teamA));
+        memberJpaRepository.save(new Member("member2", 20, teamA));
+        memberJpaRepository.save(new Member("member3", 20, teamB));
+        memberJpaRepository.save(new Member("member4", 40, teamB));
+        memberJpaRepository.save(new Member("member5", 40, teamB));
+    }
+
+    /**
+     * keyset 페이징으로 끝까지 넘겨도 offset 페이징과 같은 순서
+     */
+    @Test
+    public void keysetPaging() {
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<Member> page = memberJpaRepository.findAllByKeyset(null, "age desc, username asc, id", cursor, 2);
+            page.getContent().forEach(m -> usernames.add(m.getUsername()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(usernames).containsExactly("member4", "member5", "member2", "member3", "member1");
+    }
+
+    @Test
+    public void keysetPagingWithCondition() {
+        KeysetPage<Member> first = memberJpaRepository.findAllByKeyset(member.age.goe(20), "age", null, 2);
+        assertThat(first.getContent()).extracting("username").containsExactly("member2", "member3");
+        assertThat(first.hasNext()).isTrue();
+
+        KeysetPage<Member> second = memberJpaRepository.findAllByKeyset(member.age.goe(20), "age", first.getNextCursor(), 2);
+        assertThat(second.getContent()).extracting("username").containsExactly("member4", "member5");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    /**
+     * 다른 정렬 조건으로 만든 커서는 사용할 수 없음
+     */
+    @Test
+    public void keysetCursorSortMismatch() {
+        KeysetPage<Member> page = memberJpaRepository.findAllByKeyset(null, "age desc", null, 2);
+
+        assertThatThrownBy(() -> memberJpaRepository.findAllByKeyset(null, "username", page.getNextCursor(), 2))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class); // @Repository 예외 변환
+    }
+
+    @Test
+    public void pageWithTeam() {
+        Page<Member> page = memberJpaRepository.findPageWithTeam(null, PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.getContent()).extracting("username").containsExactly("member3", "member4");
+    }
+
+    /**
+     * 첫 페이지 결과가 페이지 크기보다 작으면 count 쿼리 없이 전체 개수를 알 수 있음
+     * => 내용 조회 select 한 번만 실행되어야 함
+     */
+    @Test
+    public void pageWithTeamSkipCount() {
+        Page<Member> page = pageWithTeamCountingStatements(member.age.eq(40), PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting("username").containsExactly("member4", "member5");
+    }
+
+    /**
+     * 마지막 페이지도 offset + 결과 수로 전체 개수를 알 수 있으므로 count 쿼리 없음
+     */
+    @Test
+    public void pageWithTeamSkipCountOnLastPage() {
+        Page<Member> page = pageWithTeamCountingStatements(null, PageRequest.of(2, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.getContent()).extracting("username").containsExactly("member5");
+    }
+
+    /**
+     * 준비 데이터를 먼저 flush 해서 insert 가 섞이지 않게 하고 조회 statement 가 정확히 하나인지 확인
+     */
+    private Page<Member> pageWithTeamCountingStatements(Predicate condition, PageRequest pageRequest) {
+        em.flush();
+        em.clear();
+
+        QueryBudget budget = QueryBudget.open("findPageWithTeam", 1);
+        Page<Member> page;
+        try {
+            page = memberJpaRepository.findPageWithTeam(condition, pageRequest);
+        } finally {
+            budget.close();
+        }
+
+        assertThat(budget.getCount()).as(budget.describe()).isEqualTo(1);
+        return page;
+    }
+
+    @Test
+    public void sliceWithTeam() {
+        Slice<Member> slice = memberJpaRepository.findSliceWithTeam(null, PageRequest.of(2, 2));
+
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(slice.getContent()).extracting("username").containsExactly("member5");
+    }
+
+    @Test
+    public void saveAll() {
+        Team team = new Team("bulkTeam");
+        em.persist(team);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            members.add(new Member("bulk" + i, i % 100, team));
+        }
+
+        assertThat(memberJpaRepository.saveAll(members)).isEqualTo(1000);
+        assertThat(memberJpaRepository.count()).isEqualTo(1005);
+    }
+
+    /**
+     * 쓰기 트랜잭션 안에서 flush 전 저장 / 수정한 내용도 읽기 전용 조회 결과에 보여야 함
+     */
+    @Test
+    public void findAllReadOnlySeesUnflushedChanges() {
+        Member member1 = memberJpaRepository.findAll().stream()
+                .filter(m -> m.getUsername().equals("member1")).findFirst().get();
+        member1.setAge(99);
+        memberJpaRepository.save(new Member("member6", 99));
+
+        assertThat(memberJpaRepository.findAllReadOnly(member.age.eq(99), member.username.asc()))
+                .extracting("username")
+                .containsExactly("member1", "member6");
+    }
+
+    /**
+     * 벌크 수정 후 영향받은 엔티티만 갱신되고 나머지는 그대로 관리 상태
+     */
+    @Test
+    public void bulkUpdateRefreshesOnlyAffected() {
+        List<Member> members = memberJpaRepository.findAll();
+        Member member1 = members.stream().filter(m -> m.getUsername().equals("member1")).findFirst().get();
+        Member member4 = members.stream().filter(m -> m.getUsername().equals("member4")).findFirst().get();
+
+        long count = memberJpaRepository.bulkUpdate(member.age.lt(28), update -> update.set(member.username, "비회원"));
+
+        assertThat(count).isEqualTo(3);
+        assertThat(member1.getUsername()).isEqualTo("비회원");
+        assertThat(member4.getUsername()).isEqualTo("member4");
+        assertThat(em.contains(member4)).isTrue();
+    }
+
+    /**
+     * 연관 엔티티를 비교하는 조건은 메모리에서 평가하지 않음 (팀 프록시를 초기화하지 않음)
+     * => 관리 엔티티 전체를 한 번에 다시 읽으므로 같은 인스턴스에 바뀐 값이 보임
+     */
+    @Test
+    public void bulkUpdateByAssociationDoesNotLoadTeams() {
+        em.flush();
+        em.clear();
+        List<Member> members = memberJpaRepository.findAll();
+        Member member1 = members.stream().filter(m -> m.getUsername().equals("member1")).findFirst().get();
+        Long teamAId = em.createQuery("select t.id from Team t where t.name = 'TeamA'", Long.class).getSingleResult();
+
+        long count = memberJpaRepository.bulkUpdate(member.team.eq(em.getReference(Team.class, teamAId)),
+                update -> update.set(member.age, member.age.add(1)));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(member1.getAge()).isEqualTo(11);
+        assertThat(members).allMatch(em::contains);
+        assertThat(members).noneMatch(m -> em.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(m.getTeam()));
+    }
+
+    @Test
+    public void bulkDeleteDetachesOnlyAffected() {
+        List<Member> members = memberJpaRepository.findAll();
+
+        long count = memberJpaRepository.bulkDelete(member.age.gt(18));
+
+        assertThat(count).isEqualTo(4);
+        assertThat(members).filteredOn(em::contains).extracting("username").containsExactly("member1");
+    }
+
+    /**
+     * clearEvery 가 잘못되면 커서를 열기 전에 실패
+     */
+    @Test
+    public void forEachClearingValidatesBeforeOpening() {
+        Supplier<Stream<Member>> stream = () -> {
+            throw new AssertionError("커서를 열면 안 됨");
+        };
+
+        assertThatThrownBy(() -> StreamingSupport.forEachClearing(em, stream, 0, m -> {
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        List<String> usernames = new ArrayList<>();
+        assertThat(memberJpaRepository.forEachMember(2, 2, m -> usernames.add(m.getUsername()))).isEqualTo(5);
+        assertThat(usernames).hasSize(5);
+    }
+}
@@ -0,0 +1,74 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.dto.MemberSearchSort;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSearchRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSearchRepository memberSearchRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+
+    @Test
+    public void search() {
+        MemeberSearchDto condition = new MemeberSearchDto();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(40);
+        condition.setTeamName("TeamB");
+        condition.setSort(MemberSearchSort.AGE_DESC);
+
+        List<MemberTeamDto> result = memberSearchRepository.search(condition);
+
+        assertThat(result).extracting("username").containsExactly("member4", "member3");
+        assertThat(result).extracting("teamName").containsOnly("TeamB");
+    }
+
+    /**
+     * 값만 다르고 모양이 같은 검색은 캐시된 JPQL 을 재사용
+     */
+    @Test
+    public void searchReusesPlanForSameShape() {
+        MemeberSearchDto first = new MemeberSearchDto();
+        first.setUsername("member1");
+        MemeberSearchDto second = new MemeberSearchDto();
+        second.setUsername("member2");
+
+        int before = memberSearchRepository.cachedPlanCount();
+        assertThat(memberSearchRepository.search(first)).extracting("username").containsExactly("member1");
+        int afterFirst = memberSearchRepository.cachedPlanCount();
+        assertThat(memberSearchRepository.search(second)).extracting("username").containsExactly("member2");
+
+        assertThat(afterFirst).isLessThanOrEqualTo(before + 1);
+        assertThat(memberSearchRepository.cachedPlanCount()).isEqualTo(afterFirst);
+    }
+}
@@ -0,0 +1,87 @@
+package study.querydsl.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchSort;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSqlRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    MemberSearchRepository memberSearchRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50));
+        // querydsl-sql 은 JDBC 로 바로 조회하므로 flush 해야 보임
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * JPA 경로 (MemberSearchRepository) 와 같은 결과
+     */
+    @Test
+    public void searchMatchesJpa() {
+        MemeberSearchDto condition = new MemeberSearchDto();
+        condition.setAgeGoe(20);
+        condition.setTeamName("TeamB");
+        condition.setSort(MemberSearchSort.AGE_DESC);
+
+        List<MemberTeamDto> result = memberSqlRepository.search(condition);
+
+        assertThat(result).extracting("username").containsExactly("member4", "member3");
+        assertThat(result).isEqualTo(memberSearchRepository.search(condition));
+        assertThat(memberSqlRepository.count(condition)).isEqualTo(memberSearchRepository.count(condition));
+    }
+
+    /**
+     * 팀이 없는 회원도 left join 으로 포함 , 엔티티는 영속성 컨텍스트에 올라가지 않음
+     */
+    @Test
+    public void searchWithoutTeamAndPaging() {
+        MemeberSearchDto condition = new MemeberSearchDto();
+
+        List<MemberTeamDto> page = memberSqlRepository.search(condition, PageRequest.of(1, 2));
+
+        assertThat(page).extracting("username").containsExactly("member3", "member4");
+        assertThat(memberSqlRepository.search(condition)).last()
+                .satisfies(dto -> {
+                    assertThat(dto.getUsername()).isEqualTo("member5");
+                    assertThat(dto.getTeamId()).isNull();
+                    assertThat(dto.getTeamName()).isNull();
+                });
+        assertThat(memberSqlRepository.count(condition)).isEqualTo(5);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+}
@@ -0,0 +1,213 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.dto.MemberSearchSort;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.dto.MemeberSearchDto;
+import study.querydsl.sharding.ShardAggregate;
+import study.querydsl.sharding.ShardDataSources;
+import study.querydsl.sharding.ShardRouter;
+import study.querydsl.sharding.ShardedQueryExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * 인메모리 H2 세 개를 샤드로 사용 (샤드 쓰기는 자동 커밋이므로 트랜잭션 롤백 대신 직접 삭제)
+ */
+@SpringBootTest(properties = {
+        "sharding.enabled=true",
+        "sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "sharding.shards[0].username=sa",
+        "sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "sharding.shards[1].username=sa",
+        "sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "sharding.shards[2].username=sa"
+})
+class ShardedMemberRepositoryTest {
+    @Autowired
+    ShardedMemberRepository shardedMemberRepository;
+
+    @Autowired
+    ShardedQueryExecutor executor;
+
+    @Autowired
+    ShardRouter router;
+
+    @Autowired
+    ShardDataSources dataSources;
+
+    List<JdbcTemplate> shards;
+
+    @BeforeEach
+    public void before() {
+        shards = dataSources.getShards().stream().map(JdbcTemplate::new).collect(Collectors.toList());
+        for (JdbcTemplate shard : shards) {
+            shard.update("delete from member");
+            shard.update("delete from team");
+        }
+    }
+
+    /**
+     * 회원은 팀의 샤드 한 곳에만 , 팀은 모든 샤드에
+     */
+    @Test
+    public void writesAreRoutedByTeam() {
+        Long teamA = shardedMemberRepository.saveTeam("teamA");
+        Long teamB = shardedMemberRepository.saveTeam("teamB");
+        Long member1 = shardedMemberRepository.saveMember("member1", 10, teamA);
+        Long member2 = shardedMemberRepository.saveMember("member2", 20, teamB);
+        Long member3 = shardedMemberRepository.saveMember("member3", 30, null);
+
+        assertThat(router.shardOfMember(member1)).isEqualTo(router.shardOfTeam(teamA));
+        assertThat(router.shardOfMember(member2)).isEqualTo(router.shardOfTeam(teamB));
+        assertThat(router.shardOfMember(member3)).isZero();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            assertThat(shards.get(shard).queryForObject("select count(*) from team", Long.class)).isEqualTo(2);
+            int expected = 0;
+            for (Long memberId : Arrays.asList(member1, member2, member3)) {
+                expected += router.shardOfMember(memberId) == shard ? 1 : 0;
+            }
+            assertThat(shards.get(shard).queryForObject("select count(*) from member", Long.class)).isEqualTo(expected);
+        }
+
+        MemberTeamDto found = shardedMemberRepository.findById(member2).orElseThrow(IllegalStateException::new);
+        assertThat(found.getUsername()).isEqualTo("member2");
+        assertThat(found.getTeamName()).isEqualTo("teamB");
+        assertThat(shardedMemberRepository.findById(member3))
+                .hasValueSatisfying(dto -> assertThat(dto.getTeamId()).isNull());
+    }
+
+    /**
+     * 페이지를 이어 붙이면 단일 DB 에서 정렬한 것과 같은 순서 (페이지 경계가 샤드 경계와 무관)
+     */
+    @Test
+    public void searchMergesAndRepagesAcrossShards() {
+        List<Long> teamIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            teamIds.add(shardedMemberRepository.saveTeam("team" + i));
+        }
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String username = String.format("member%02d", (i * 7) % 20); // 샤드마다 이름 순서가 섞이도록
+            shardedMemberRepository.saveMember(username, i, teamIds.get(i % teamIds.size()));
+            usernames.add(username);
+        }
+        assertThat(teamIds.stream().map(router::shardOfTeam).distinct().count()).isEqualTo(3);
+
+        MemeberSearchDto condition = new MemeberSearchDto();
+        condition.setSort(MemberSearchSort.USERNAME);
+        Collections.sort(usernames);
+        assertThat(pages(condition, 3)).extracting("username").containsExactlyElementsOf(usernames);
+
+        condition.setSort(MemberSearchSort.AGE_DESC);
+        condition.setAgeGoe(5);
+        List<Integer> ages = new ArrayList<>();
+        for (int age = 19; age >= 5; age--) {
+            ages.add(age);
+        }
+        assertThat(pages(condition, 4)).extracting("age").containsExactlyElementsOf(ages);
+        assertThat(shardedMemberRepository.count(condition)).isEqualTo(15);
+        assertThat(shardedMemberRepository.search(condition)).extracting("age").containsExactlyElementsOf(ages);
+    }
+
+    /**
+     * 팀 이름 조건이면 그 팀의 샤드만 조회 , 없는 팀이면 조회하지 않음
+     */
+    @Test
+    public void teamNameConditionPrunesShards() {
+        Long teamA = shardedMemberRepository.saveTeam("teamA");
+        Long teamB = shardedMemberRepository.saveTeam("teamB");
+        shardedMemberRepository.saveMember("member1", 10, teamA);
+        shardedMemberRepository.saveMember("member2", 20, teamA);
+        shardedMemberRepository.saveMember("member3", 30, teamB);
+
+        MemeberSearchDto condition = new MemeberSearchDto();
+        condition.setTeamName("teamA");
+
+        assertThat(shardedMemberRepository.shardsOf(condition)).containsExactly(router.shardOfTeam(teamA));
+        assertThat(shardedMemberRepository.search(condition, PageRequest.of(0, 10)))
+                .extracting("username").containsExactly("member1", "member2");
+        assertThat(shardedMemberRepository.count(condition)).isEqualTo(2);
+
+        condition.setTeamName("teamZ");
+        assertThat(shardedMemberRepository.shardsOf(condition)).isEmpty();
+        assertThat(shardedMemberRepository.search(condition)).isEmpty();
+        assertThat(shardedMemberRepository.count(condition)).isZero();
+    }
+
+    /**
+     * QuerydslBasicTest.group 과 같은 집계를 샤드별 부분 집계로 합침
+     * => 평균은 샤드 평균의 평균이 아니라 합계 / 개수 , 같은 그룹 키가 여러 샤드에 있어도 한 행
+     */
+    @Test
+    public void groupMergesPartialAggregates() {
+        Long teamA = shardedMemberRepository.saveTeam("teamA");
+        Long teamB = shardedMemberRepository.saveTeam("teamB");
+        Long teamC = shardedMemberRepository.saveTeam("teamC");
+        shardedMemberRepository.saveMember("member1", 10, teamA);
+        shardedMemberRepository.saveMember("member2", 20, teamA);
+        shardedMemberRepository.saveMember("member3", 30, teamB);
+        shardedMemberRepository.saveMember("member4", 40, teamB);
+        shardedMemberRepository.saveMember("member5", 10, teamC);
+        shardedMemberRepository.saveMember("member6", 40, teamC);
+        assertThat(Arrays.asList(teamA, teamB, teamC).stream().map(router::shardOfTeam).distinct().count()).isEqualTo(3);
+
+        List<Tuple> byTeam = executor.aggregate(executor.all(),
+                factory -> factory.from(member).join(member.teamFk, team),
+                Collections.singletonList(team.name),
+                Collections.singletonList(ShardAggregate.avg(member.age)));
+
+        assertThat(byTeam).hasSize(3);
+        assertThat(byTeam.get(0).get(team.name)).isEqualTo("teamA");
+        assertThat(byTeam.get(0).get(member.age.avg())).isEqualTo(15);
+        assertThat(byTeam.get(1).get(team.name)).isEqualTo("teamB");
+        assertThat(byTeam.get(1).get(member.age.avg())).isEqualTo(35);
+        assertThat(byTeam.get(2).get(member.age.avg())).isEqualTo(25);
+
+        List<Tuple> byAge = executor.aggregate(executor.all(),
+                factory -> factory.from(member),
+                Collections.singletonList(member.age),
+                Collections.singletonList(ShardAggregate.count(member.memberId)));
+
+        assertThat(byAge).extracting(tuple -> tuple.get(member.age)).containsExactly(10, 20, 30, 40);
+        assertThat(byAge).extracting(tuple -> tuple.get(member.memberId.count())).containsExactly(2L, 1L, 1L, 2L);
+
+        List<Tuple> total = executor.aggregate(executor.all(),
+                factory -> factory.from(member),
+                Collections.emptyList(),
+                Arrays.asList(ShardAggregate.count(member.age), ShardAggregate.sum(member.age),
+                        ShardAggregate.avg(member.age), ShardAggregate.min(member.age), ShardAggregate.max(member.age)));
+
+        assertThat(total).hasSize(1);
+        assertThat(total.get(0).get(member.age.count())).isEqualTo(6);
+        assertThat(total.get(0).get(member.age.sum())).isEqualTo(150);
+        assertThat(total.get(0).get(member.age.avg())).isEqualTo(25);
+        assertThat(total.get(0).get(member.age.min())).isEqualTo(10);
+        assertThat(total.get(0).get(member.age.max())).isEqualTo(40);
+    }
+
+    private List<MemberTeamDto> pages(MemeberSearchDto condition, int size) {
+        List<MemberTeamDto> results = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            List<MemberTeamDto> content = shardedMemberRepository.search(condition, PageRequest.of(page, size));
+            results.addAll(content);
+            if (content.size() < size) {
+                return results;
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package study.querydsl.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.TeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.metrics.QueryBudget;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.transaction.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamJpaRepositoryTest {
+    @Autowired
+    EntityManager em;
+
+    @PersistenceUnit
+    EntityManagerFactory emf;
+
+    @Autowired
+    TeamJpaRepository teamJpaRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 5; i++) {
+            Team team = teamJpaRepository.save(new Team("Team" + i));
+            for (int j = 0; j < 3; j++) {
+                em.persist(new Member("member" + i + "_" + j, 10 * j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * 팀 페이지의 회원 컬렉션이 추가 쿼리 없이 모두 초기화되어 있어야 함
+     */
+    @Test
+    public void findPageWithMembers() {
+        Page<Team> page = teamJpaRepository.findPageWithMembers(PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting("name").containsExactly("Team2", "Team3");
+        for (Team team : page.getContent()) {
+            assertThat(emf.getPersistenceUnitUtil().isLoaded(team, "members")).isTrue();
+            assertThat(team.getMembers()).hasSize(3);
+        }
+    }
+
+    /**
+     * 쿼리 한 번 , 엔티티는 하나도 영속성 컨텍스트에 올라가지 않아야 함
+     */
+    @Test
+    public void findTeamDtos() {
+        em.persist(new Team("EmptyTeam"));
+        em.flush();
+        em.clear();
+
+        QueryBudget budget = QueryBudget.open("findTeamDtos", 1);
+        List<TeamDto> teams;
+        try {
+            teams = teamJpaRepository.findTeamDtos(null);
+        } finally {
+            budget.close();
+        }
+
+        assertThat(budget.getCount()).isEqualTo(1);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        assertThat(teams).hasSize(6);
+        assertThat(teams.get(0).getMembers()).extracting("username")
+                .containsExactly("member0_0", "member0_1", "member0_2");
+        assertThat(teams).filteredOn(dto -> "EmptyTeam".equals(dto.getName()))
+                .singleElement()
+                .satisfies(dto -> assertThat(dto.getMembers()).isEmpty());
+    }
+
+    /**
+     * 두 번째 조회부터는 2차 캐시에서 가져옴
+     * => READ_WRITE 캐시는 트랜잭션 시작 이후에 커밋된 항목을 읽지 않으므로 (테스트 트랜잭션에서는 항상 miss)
+     *    저장 / 조회 모두 별도 트랜잭션으로 실행하고 직접 정리
+     */
+    @Test
+    public void findByIdUsesSecondLevelCache() {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long teamId = requiresNew.execute(status -> teamJpaRepository.save(new Team("CachedTeam")).getId());
+        try {
+            long hitsBefore = teamJpaRepository.cacheStatistics().getHitCount();
+            requiresNew.executeWithoutResult(status -> teamJpaRepository.findById(teamId));
+            requiresNew.executeWithoutResult(status -> teamJpaRepository.findById(teamId));
+
+            assertThat(teamJpaRepository.cacheStatistics().getHitCount()).isGreaterThan(hitsBefore);
+        } finally {
+            requiresNew.executeWithoutResult(status -> jdbcTemplate.update("delete from team where team_id = ?", teamId));
+            teamJpaRepository.evictCache(teamId);
+        }
+    }
+}
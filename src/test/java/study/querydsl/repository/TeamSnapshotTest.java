@@ -0,0 +1,68 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.querydsl.CommittingTestSupport;
+import study.querydsl.entity.Team;
+import study.querydsl.metrics.QueryBudget;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 스냅샷은 커밋된 데이터만 봄
+ */
+class TeamSnapshotTest extends CommittingTestSupport {
+    @Autowired
+    TeamJpaRepository teamJpaRepository;
+
+    @BeforeEach
+    public void before() {
+        tx.executeWithoutResult(status -> {
+            em.persist(new Team("SnapshotB"));
+            em.persist(new Team("SnapshotA"));
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.update("delete from team where name like 'Snapshot%'");
+        teamJpaRepository.evictCache();
+    }
+
+    /**
+     * 두 번째 조회부터는 SQL 없이 같은 결과
+     */
+    @Test
+    public void evaluatesPredicateInMemory() {
+        List<Team> first = teamJpaRepository.findAllCached(team.name.startsWith("Snapshot"), team.name.asc());
+
+        QueryBudget budget = QueryBudget.open("snapshot", 0);
+        List<Team> second;
+        try {
+            second = teamJpaRepository.findAllCached(team.name.startsWith("Snapshot"), team.name.asc());
+        } finally {
+            budget.close();
+        }
+
+        assertThat(first).extracting("name").containsExactly("SnapshotA", "SnapshotB");
+        assertThat(second).isEqualTo(first);
+        assertThat(budget.getCount()).isZero();
+    }
+
+    /**
+     * 팀이 커밋되면 다음 조회에 반영
+     */
+    @Test
+    public void refreshesAfterCommit() {
+        assertThat(teamJpaRepository.findAllCached(team.name.eq("SnapshotC"))).isEmpty();
+
+        tx.executeWithoutResult(status -> em.persist(new Team("SnapshotC")));
+
+        assertThat(teamJpaRepository.findAllCached(team.name.eq("SnapshotC"))).hasSize(1);
+    }
+}
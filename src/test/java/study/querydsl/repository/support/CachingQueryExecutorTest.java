@@ -0,0 +1,95 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@SpringBootTest
+@Transactional
+class CachingQueryExecutorTest {
+    @PersistenceContext
+    EntityManager em;
+
+    JPAQueryFactory queryFactory;
+    CachingQueryExecutor executor;
+
+    @BeforeEach
+    public void before() {
+        queryFactory = new JPAQueryFactory(em);
+        executor = new CachingQueryExecutor(em, 2);
+
+        Team teamA = new Team("TeamA");
+        Team teamB = new Team("TeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+
+    /**
+     * 상수 값만 다른 쿼리는 캐시 적중
+     */
+    @Test
+    public void sameShapeHits() {
+        List<Member> first = executor.fetch(queryFactory.selectFrom(member).where(member.age.gt(15)).orderBy(member.age.asc()));
+        List<Member> second = executor.fetch(queryFactory.selectFrom(member).where(member.age.gt(35)).orderBy(member.age.asc()));
+
+        assertThat(first).extracting("username").containsExactly("member2", "member3", "member4");
+        assertThat(second).extracting("username").containsExactly("member4");
+        assertThat(executor.getMissCount()).isEqualTo(1);
+        assertThat(executor.getHitCount()).isEqualTo(1);
+    }
+
+    /**
+     * like 계열은 값이 모양에 포함됨
+     */
+    @Test
+    public void likeIsPartOfShape() {
+        executor.fetch(queryFactory.selectFrom(member).where(member.username.startsWith("member1")));
+        List<Member> result = executor.fetch(queryFactory.selectFrom(member).where(member.username.startsWith("member2")));
+
+        assertThat(result).extracting("username").containsExactly("member2");
+        assertThat(executor.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void projectionAndJoin() {
+        List<MemberDto> result = executor.fetch(queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .join(member.team, team)
+                .where(team.name.eq("TeamB"), member.age.lt(40))
+                .offset(0)
+                .limit(10));
+
+        assertThat(result).extracting("username").containsExactly("member3");
+    }
+
+    @Test
+    public void lruEviction() {
+        executor.fetch(queryFactory.selectFrom(member).where(member.age.eq(10)));
+        executor.fetch(queryFactory.selectFrom(member).where(member.username.eq("member1")));
+        executor.fetch(queryFactory.selectFrom(member).where(member.age.eq(20), member.username.eq("member2")));
+
+        assertThat(executor.size()).isEqualTo(2);
+        assertThat(executor.getEvictionCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.querydsl.CommittingTestSupport;
+import study.querydsl.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 청크마다 커밋함
+ */
+class ChunkedBulkExecutorTest extends CommittingTestSupport {
+    @Autowired
+    ChunkedBulkExecutor executor;
+
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before() {
+        queryFactory = new JPAQueryFactory(em);
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < 20; i++) {
+                em.persist(new Member("chunked" + i, i % 2 == 0 ? 10 : 30));
+            }
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status ->
+                queryFactory.delete(member).where(member.username.startsWith("chunked")).execute());
+    }
+
+    @Test
+    public void deleteInChunks() {
+        List<ChunkedBulkProgress> progresses = new ArrayList<>();
+        ChunkedBulkProgress result = executor.delete(member, member.id,
+                member.username.startsWith("chunked").and(member.age.gt(18)),
+                ChunkedBulkOptions.builder().chunkSize(5).progressListener(progresses::add).build());
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getRows()).isEqualTo(10);
+        assertThat(result.getChunks()).isGreaterThan(1);
+        assertThat(progresses).hasSize((int) result.getChunks());
+        assertThat(countChunked()).isEqualTo(10);
+    }
+
+    /**
+     * 취소하면 이미 커밋된 청크만 반영
+     */
+    @Test
+    public void cancelAfterFirstChunk() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ChunkedBulkProgress result = executor.update(member, member.id, member.username.startsWith("chunked"),
+                update -> update.set(member.age, member.age.add(1)),
+                ChunkedBulkOptions.builder()
+                        .chunkSize(5)
+                        .cancelled(cancelled::get)
+                        .progressListener(progress -> cancelled.set(true))
+                        .build());
+
+        assertThat(result.isCancelled()).isTrue();
+        assertThat(result.getChunks()).isEqualTo(1);
+        assertThat(result.getRows()).isBetween(1L, 5L);
+    }
+
+    private long countChunked() {
+        return tx.execute(status -> queryFactory.select(member.count())
+                .from(member)
+                .where(member.username.startsWith("chunked"))
+                .fetchOne());
+    }
+}
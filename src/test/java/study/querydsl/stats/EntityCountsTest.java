@@ -0,0 +1,196 @@
+package study.querydsl.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.querydsl.CommittingTestSupport;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.TeamJpaRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 근사 카운트는 커밋 후 리스너로 반영됨
+ */
+class EntityCountsTest extends CommittingTestSupport {
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TeamJpaRepository teamJpaRepository;
+
+    @Autowired
+    EntityCounts counts;
+
+    @Autowired
+    TeamStatisticsView teamStatistics;
+
+    long membersBefore;
+    long teamsBefore;
+    Long teamAId;
+    Long teamBId;
+    Long member2Id;
+
+    @BeforeEach
+    public void before() {
+        counts.reconcile();
+        membersBefore = memberJpaRepository.count(CountMode.APPROXIMATE);
+        teamsBefore = teamJpaRepository.count(CountMode.APPROXIMATE);
+
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("CountTeamA");
+            Team teamB = new Team("CountTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member1 = new Member("count1", 10, teamA);
+            Member member2 = new Member("count2", 20, teamA);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(new Member("count3", 30, teamB));
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+            member2Id = member2.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        deleteTeams(teamAId, teamBId);
+        counts.reconcile();
+    }
+
+    @Test
+    public void insertIsApplied() {
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(membersBefore + 3);
+        assertThat(teamJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(teamsBefore + 2);
+        assertThat(memberJpaRepository.countByTeam(teamAId, CountMode.APPROXIMATE)).isEqualTo(2);
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(memberJpaRepository.count(CountMode.EXACT));
+    }
+
+    /**
+     * 팀 변경 / 삭제 / 벌크 삭제 모두 반영
+     */
+    @Test
+    public void changeTeamDeleteAndBulkDelete() {
+        tx.executeWithoutResult(status ->
+                em.find(Member.class, member2Id).changeTeam(em.find(Team.class, teamBId)));
+
+        assertThat(memberJpaRepository.countByTeam(teamAId, CountMode.APPROXIMATE)).isEqualTo(1);
+        assertThat(memberJpaRepository.countByTeam(teamBId, CountMode.APPROXIMATE)).isEqualTo(2);
+
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, member2Id)));
+
+        assertThat(memberJpaRepository.countByTeam(teamBId, CountMode.APPROXIMATE)).isEqualTo(1);
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(membersBefore + 2);
+
+        memberJpaRepository.bulkDelete(member.team.id.eq(teamAId));
+
+        assertThat(memberJpaRepository.countByTeam(teamAId, CountMode.APPROXIMATE)).isZero();
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(membersBefore + 1);
+    }
+
+    /**
+     * 벌크 수정은 전체 수를 바꾸지 않으므로 다시 세지 않음 (팀별 수는 팀 통계 재계산으로 반영)
+     */
+    @Test
+    public void bulkUpdateKeepsTotals() {
+        memberJpaRepository.bulkUpdate(member.id.eq(member2Id), update -> update.set(member.team.id, teamBId));
+
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(membersBefore + 3);
+        assertThat(memberJpaRepository.countByTeam(teamAId, CountMode.APPROXIMATE)).isEqualTo(1);
+        assertThat(memberJpaRepository.countByTeam(teamBId, CountMode.APPROXIMATE)).isEqualTo(2);
+    }
+
+    /**
+     * hibernate 를 거치지 않은 변경은 보정 전까지 어긋나고 보정 후 EXACT 와 같아짐
+     * => 전체 수는 EntityCounts , 팀별 수는 TeamStatisticsView 가 보정
+     */
+    @Test
+    public void reconcileCorrectsDrift() {
+        jdbcTemplate.update("delete from member where team_id = ?", teamBId);
+
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(membersBefore + 3);
+        assertThat(memberJpaRepository.countByTeam(teamBId, CountMode.APPROXIMATE)).isEqualTo(1);
+        assertThat(memberJpaRepository.countByTeam(teamBId, CountMode.EXACT)).isZero();
+
+        counts.reconcile();
+        teamStatistics.rebuild();
+
+        assertThat(memberJpaRepository.countByTeam(teamBId, CountMode.APPROXIMATE)).isZero();
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(memberJpaRepository.count(CountMode.EXACT));
+    }
+
+    /**
+     * 커밋이 계속 들어오는 동안 보정해도 보정이 건너뛰어지지 않고 증분도 잃지 않음
+     * => hibernate 를 거치지 않고 넣은 3 건 (메모리가 DB 보다 작음) 은 동시 보정에서 반영되어야 함
+     * => 세는 도중 커밋된 증분이 한 번 더 반영될 수는 있으므로 끝난 직후는 DB 이상 , 한 번 더 보정하면 같음
+     */
+    @Test
+    public void reconcileUnderConcurrentCommits() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)",
+                    -i, "jdbc" + i, 40, teamBId);
+        }
+        int writers = 4;
+        int insertsPerWriter = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger reconciles = new AtomicInteger();
+        try {
+            List<Future<?>> inserts = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                inserts.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < insertsPerWriter; i++) {
+                        int n = i;
+                        tx.executeWithoutResult(status ->
+                                em.persist(new Member("concurrent" + writer + "_" + n, n, em.find(Team.class, teamBId))));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> reconciler = executor.submit(() -> {
+                start.await();
+                do {
+                    counts.reconcile();
+                    reconciles.incrementAndGet();
+                } while (writing.get());
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> insert : inserts) {
+                insert.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            reconciler.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(memberJpaRepository.countByTeam(teamBId, CountMode.EXACT)).isEqualTo(1 + 3 + writers * insertsPerWriter);
+        assertThat(reconciles.get()).isPositive();
+        long exact = memberJpaRepository.count(CountMode.EXACT);
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isGreaterThanOrEqualTo(exact);
+
+        counts.reconcile();
+
+        assertThat(memberJpaRepository.count(CountMode.APPROXIMATE)).isEqualTo(exact);
+    }
+}
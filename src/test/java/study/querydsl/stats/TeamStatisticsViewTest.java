@@ -0,0 +1,137 @@
+package study.querydsl.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.querydsl.CommittingTestSupport;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 통계는 커밋 후 리스너로 반영됨
+ */
+class TeamStatisticsViewTest extends CommittingTestSupport {
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    TeamStatisticsView view;
+
+    Long teamAId;
+    Long teamBId;
+    Long member2Id;
+    Long member3Id;
+
+    @BeforeEach
+    public void before() {
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("StatsTeamA");
+            Team teamB = new Team("StatsTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member1 = new Member("stats1", 10, teamA);
+            Member member2 = new Member("stats2", 20, teamA);
+            Member member3 = new Member("stats3", 30, teamB);
+            em.persist(member1);
+            em.persist(member2);
+            em.persist(member3);
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+            member2Id = member2.getId();
+            member3Id = member3.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        deleteTeams(teamAId, teamBId);
+        view.rebuild();
+    }
+
+    @Test
+    public void insertIsApplied() {
+        TeamStatistics teamA = view.get(teamAId).orElseThrow(AssertionError::new);
+
+        assertThat(teamA.getTeamName()).isEqualTo("StatsTeamA");
+        assertThat(teamA.getCount()).isEqualTo(2);
+        assertThat(teamA.getAvg()).isEqualTo(15.0);
+        assertThat(teamA.getMin()).isEqualTo(10);
+        assertThat(teamA.getMax()).isEqualTo(20);
+    }
+
+    /**
+     * changeTeam / 삭제 / 벌크 수정 모두 반영된 뒤 DB 와 일치해야 함
+     */
+    @Test
+    public void changeTeamDeleteAndBulkUpdate() {
+        tx.executeWithoutResult(status ->
+                em.find(Member.class, member2Id).changeTeam(em.find(Team.class, teamBId)));
+
+        assertThat(view.get(teamAId).map(TeamStatistics::getMax)).contains(10);
+        assertThat(view.get(teamBId).map(TeamStatistics::getCount)).contains(2L);
+
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, member3Id)));
+
+        assertThat(view.get(teamBId).map(TeamStatistics::getMin)).contains(20);
+        assertThat(view.get(teamBId).map(TeamStatistics::getCount)).contains(1L);
+
+        memberJpaRepository.bulkUpdate(member.team.id.eq(teamAId), update -> update.set(member.age, 50));
+
+        assertThat(view.get(teamAId).map(TeamStatistics::getMin)).contains(50);
+        assertThat(view.verify()).noneMatch(mismatch ->
+                mismatch.startsWith("teamId=" + teamAId + " ") || mismatch.startsWith("teamId=" + teamBId + " "));
+    }
+
+    /**
+     * 뷰에 없는 팀의 회원이 추가되면 팀 이름을 읽어서 채움 (이름 없는 통계를 만들지 않음)
+     */
+    @Test
+    public void memberOfUnknownTeamLoadsTeamName() {
+        view.teamRemoved(teamAId);
+        assertThat(view.get(teamAId)).isEmpty();
+
+        tx.executeWithoutResult(status -> em.persist(new Member("stats4", 40, em.find(Team.class, teamAId))));
+
+        TeamStatistics teamA = view.get(teamAId).orElseThrow(AssertionError::new);
+        assertThat(teamA.getTeamName()).isEqualTo("StatsTeamA");
+        assertThat(teamA.getCount()).isEqualTo(1);
+
+        view.teamRemoved(teamBId);
+        tx.executeWithoutResult(status -> em.remove(em.find(Member.class, member3Id)));
+
+        assertThat(view.get(teamBId)).isEmpty();
+    }
+
+    /**
+     * 세는 도중 (checkpoint 이후) 들어온 증분은 DB 값 위에 다시 얹힘
+     */
+    @Test
+    public void reconcileKeepsIncrementsAfterCheckpoint() {
+        Map<Integer, Long> ages = new HashMap<>();
+        ages.put(10, 1L);
+        ages.put(20, 1L);
+        TeamAgeHistogram histogram = TeamAgeHistogram.of(1L, "before", ages);
+        TeamAgeHistogram.Checkpoint checkpoint = histogram.checkpoint();
+        histogram.add(30, 1);
+        histogram.remove(10);
+
+        // DB 에서 센 값 : 세기 전 커밋분만 (20 살 한 명 추가 , 나중 증분은 아직 없음)
+        Map<Integer, Long> counted = new HashMap<>(ages);
+        counted.put(20, 2L);
+        histogram.reconcile(TeamAgeHistogram.of(1L, "after", counted), checkpoint);
+
+        TeamStatistics statistics = histogram.snapshot();
+        assertThat(statistics.getCount()).isEqualTo(3);
+        assertThat(statistics.getMin()).isEqualTo(20);
+        assertThat(statistics.getMax()).isEqualTo(30);
+        assertThat(statistics.getTeamName()).isEqualTo("after");
+    }
+}